@@ -0,0 +1,51 @@
+package org.silentsoft.arguments.parser.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.silentsoft.arguments.parser.Arguments;
+import org.silentsoft.arguments.parser.InvalidArgumentsException;
+import org.silentsoft.arguments.parser.ParsingOptions;
+import org.silentsoft.arguments.parser.ParsingProfile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of resolving abbreviated keys by the number of declared keys, which should not grow with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbbreviationBenchmark {
+
+	private static final int TOKENS = 100;
+
+	@Param({"10", "1000", "100000"})
+	private int declared;
+
+	private ParsingProfile profile;
+
+	private String[] args;
+
+	@Setup
+	public void setup() throws InvalidArgumentsException {
+		String[] keys = new String[declared];
+		for (int i = 0; i < declared; i++) {
+			keys[i] = "--option-" + i + "-key";
+		}
+		profile = ParsingProfile.of(ParsingOptions.ALLOW_ABBREVIATION).declare(keys);
+
+		args = new String[TOKENS];
+		for (int i = 0; i < TOKENS; i++) {
+			args[i] = "--option-" + (i * (declared / 10) / 10) + "-";
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TOKENS)
+	public Arguments parse() throws InvalidArgumentsException {
+		return Arguments.parser(args).profile(profile).parse();
+	}
+
+}
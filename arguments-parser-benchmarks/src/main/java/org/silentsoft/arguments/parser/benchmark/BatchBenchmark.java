@@ -0,0 +1,62 @@
+package org.silentsoft.arguments.parser.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.silentsoft.arguments.parser.Arguments;
+import org.silentsoft.arguments.parser.ArgumentsParser;
+import org.silentsoft.arguments.parser.InvalidArgumentsException;
+import org.silentsoft.arguments.parser.ParseResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scaling of {@link ArgumentsParser#parseAll(java.util.stream.Stream, ForkJoinPool)} with the parallelism of the pool.
+ * The score is the number of command lines per second, which should grow close to linearly up to the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+
+	private static final int LINES = 10_000;
+
+	@Param({"1", "2", "4", "8"})
+	private int parallelism;
+
+	@Param({"10"})
+	private int size;
+
+	private String[][] commandLines;
+
+	private ArgumentsParser parser;
+
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setup() {
+		commandLines = new String[LINES][];
+		for (int i = 0; i < LINES; i++) {
+			commandLines[i] = Fixtures.args(size);
+		}
+		String key = Fixtures.existingKey(0, size);
+		parser = Arguments.parser().validate(arguments -> arguments.containsKey(key));
+		pool = new ForkJoinPool(parallelism);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LINES)
+	public List<ParseResult> parseAll() throws InvalidArgumentsException {
+		return parser.parseAll(Arrays.stream(commandLines), pool);
+	}
+
+}
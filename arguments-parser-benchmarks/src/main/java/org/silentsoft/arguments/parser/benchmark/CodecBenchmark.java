@@ -0,0 +1,59 @@
+package org.silentsoft.arguments.parser.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.silentsoft.arguments.parser.Arguments;
+import org.silentsoft.arguments.parser.ArgumentsCodec;
+import org.silentsoft.arguments.parser.InvalidArgumentsException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of restoring parsed arguments, by parsing the command line again and by reading their encoding, and of looking up a value afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+	@Param({"10", "1000", "100000"})
+	private int size;
+
+	private String[] args;
+
+	private ByteBuffer encoded;
+
+	private String key;
+
+	@Setup
+	public void setup() throws InvalidArgumentsException {
+		args = Fixtures.args(size);
+		Arguments arguments = Arguments.parser(args).parse();
+		encoded = ByteBuffer.allocateDirect(ArgumentsCodec.sizeOf(arguments));
+		ArgumentsCodec.write(arguments, encoded);
+		key = Fixtures.existingKey(0, size);
+	}
+
+	@Benchmark
+	public String parse() throws InvalidArgumentsException {
+		return Arguments.parser(args).parse().getValue(key);
+	}
+
+	@Benchmark
+	public String read() throws InvalidArgumentsException {
+		encoded.clear();
+		return ArgumentsCodec.read(encoded).getValue(key);
+	}
+
+	@Benchmark
+	public Arguments encode() throws InvalidArgumentsException {
+		Arguments arguments = Arguments.parser(args).parse();
+		ByteBuffer buffer = ByteBuffer.allocate(ArgumentsCodec.sizeOf(arguments));
+		ArgumentsCodec.write(arguments, buffer);
+		return arguments;
+	}
+
+}
@@ -0,0 +1,68 @@
+package org.silentsoft.arguments.parser.benchmark;
+
+import org.silentsoft.arguments.parser.ParsingOptions;
+
+import java.util.Arrays;
+
+/**
+ * Deterministic command lines shared by the benchmarks.
+ */
+final class Fixtures {
+
+	/**
+	 * The name of the <code>options</code> parameter which means no parsing options.
+	 */
+	static final String DEFAULT_OPTIONS = "DEFAULT";
+
+	private Fixtures() { }
+
+	/**
+	 * @param size the number of tokens
+	 * @return a command line which mixes <code>-key</code>, <code>--Key=value</code> and <code>-key value value</code> forms.
+	 */
+	static String[] args(int size) {
+		String[] args = new String[size];
+		for (int i = 0; i < size; i++) {
+			switch (i % 4) {
+			case 0:
+				args[i] = "-key" + i;
+				break;
+			case 1:
+				args[i] = "--Key" + i + "=value" + i;
+				break;
+			default:
+				args[i] = "value" + i;
+				break;
+			}
+		}
+		return args;
+	}
+
+	/**
+	 * @param n
+	 * @param size at least 4
+	 * @return the <code>n</code>th key which exists in {@link #args(int)} of the given size, in a different case for double dash keys.
+	 */
+	static String existingKey(int n, int size) {
+		int i = (n * 4) % (size / 4 * 4);
+		return n % 2 == 0 ? "-key" + i : "--KEY" + (i + 1);
+	}
+
+	/**
+	 * @return a key which does not exist in {@link #args(int)}.
+	 */
+	static String missingKey(int n) {
+		return n % 2 == 0 ? "-missing" + n : "--missing" + n;
+	}
+
+	/**
+	 * @param options {@link #DEFAULT_OPTIONS} or the names of {@link ParsingOptions} joined by commas.
+	 */
+	static ParsingOptions[] options(String options) {
+		if (DEFAULT_OPTIONS.equals(options)) {
+			return new ParsingOptions[] {};
+		}
+		return Arrays.stream(options.split(",")).map(ParsingOptions::valueOf).toArray(ParsingOptions[]::new);
+	}
+
+}
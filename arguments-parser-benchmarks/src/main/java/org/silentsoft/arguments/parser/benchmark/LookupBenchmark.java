@@ -0,0 +1,74 @@
+package org.silentsoft.arguments.parser.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.silentsoft.arguments.parser.Arguments;
+import org.silentsoft.arguments.parser.InvalidArgumentsException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The average cost of a single lookup by the number of tokens and by the ratio of existing keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+	private static final int LOOKUPS = 1024;
+
+	@Param({"10", "1000", "100000"})
+	private int size;
+
+	/**
+	 * The percentage of lookups whose key exists.
+	 */
+	@Param({"0", "50", "100"})
+	private int hitRate;
+
+	private Arguments arguments;
+
+	private String[] keys;
+
+	@Setup
+	public void setup() throws InvalidArgumentsException {
+		arguments = Arguments.parser(Fixtures.args(size)).parse();
+		keys = new String[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			keys[i] = (i * 100 / LOOKUPS) < hitRate ? Fixtures.existingKey(i, size) : Fixtures.missingKey(i);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public void get(Blackhole blackhole) {
+		for (String key : keys) {
+			blackhole.consume(arguments.get(key));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public void containsKey(Blackhole blackhole) {
+		for (String key : keys) {
+			blackhole.consume(arguments.containsKey(key));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public void getValue(Blackhole blackhole) {
+		for (String key : keys) {
+			blackhole.consume(arguments.getValue(key));
+		}
+	}
+
+	@Benchmark
+	public boolean requiresHelp() {
+		return arguments.requiresHelp();
+	}
+
+}
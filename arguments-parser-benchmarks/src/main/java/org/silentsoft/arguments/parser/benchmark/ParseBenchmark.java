@@ -0,0 +1,74 @@
+package org.silentsoft.arguments.parser.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.silentsoft.arguments.parser.Arguments;
+import org.silentsoft.arguments.parser.ArgumentsCache;
+import org.silentsoft.arguments.parser.InvalidArgumentsException;
+import org.silentsoft.arguments.parser.ParsingOptions;
+import org.silentsoft.arguments.parser.ParsingProfile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing throughput by the number of tokens and by the parsing options.<p>
+ * Run with <code>-prof gc</code> to see the allocation per parse in <code>gc.alloc.rate.norm</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+	@Param({"10", "100", "1000", "10000", "100000"})
+	private int size;
+
+	/**
+	 * Every distinct profile the parsing options resolve to.
+	 */
+	@Param({
+		Fixtures.DEFAULT_OPTIONS,
+		"CASE_INSENSITIVE_SINGLE_DASH",
+		"CASE_SENSITIVE_DOUBLE_DASH",
+		"CASE_INSENSITIVE_SINGLE_DASH,CASE_SENSITIVE_DOUBLE_DASH",
+		"REMOVE_DASH_PREFIX",
+		"REMOVE_DASH_PREFIX,CASE_SENSITIVE"
+	})
+	private String options;
+
+	private String[] args;
+
+	private ParsingOptions[] parsingOptions;
+
+	private ParsingProfile parsingProfile;
+
+	private ArgumentsCache cache;
+
+	@Setup
+	public void setup() throws InvalidArgumentsException {
+		args = Fixtures.args(size);
+		parsingOptions = Fixtures.options(options);
+		parsingProfile = ParsingProfile.of(parsingOptions);
+		cache = new ArgumentsCache(16);
+	}
+
+	@Benchmark
+	public Arguments parse() throws InvalidArgumentsException {
+		return Arguments.parser(args, parsingOptions).parse();
+	}
+
+	@Benchmark
+	public Arguments parseWithProfile() throws InvalidArgumentsException {
+		return Arguments.parser(args).profile(parsingProfile).parse();
+	}
+
+	/**
+	 * A cache hit, which still hashes and compares the whole command line.
+	 */
+	@Benchmark
+	public Arguments parseWithCache() throws InvalidArgumentsException {
+		return Arguments.parser(args).profile(parsingProfile).cache(cache).parse();
+	}
+
+}
@@ -0,0 +1,73 @@
+package org.silentsoft.arguments.parser.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.silentsoft.arguments.parser.Arguments;
+import org.silentsoft.arguments.parser.InvalidArgumentsException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The average cost of parsing a single token, by the form of the token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBenchmark {
+
+	private static final int TOKENS = 1000;
+
+	/**
+	 * <ul>
+	 * <li><code>KEY</code>: <code>-key0 -key1 ...</code></li>
+	 * <li><code>KEY_VALUE</code>: <code>-key0=value0 -key1=value1 ...</code></li>
+	 * <li><code>VALUE</code>: <code>-key value0 value1 ...</code></li>
+	 * </ul>
+	 */
+	@Param({"KEY", "KEY_VALUE", "VALUE"})
+	private String form;
+
+	private String[] args;
+
+	/**
+	 * The <code>args</code> joined by spaces.
+	 */
+	private String commandLine;
+
+	@Setup
+	public void setup() {
+		args = new String[TOKENS];
+		for (int i = 0; i < TOKENS; i++) {
+			switch (form) {
+			case "KEY":
+				args[i] = "-key" + i;
+				break;
+			case "KEY_VALUE":
+				args[i] = "-key" + i + "=value" + i;
+				break;
+			default:
+				args[i] = i == 0 ? "-key" : "value" + i;
+				break;
+			}
+		}
+		commandLine = String.join(" ", args);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TOKENS)
+	public Arguments parse() throws InvalidArgumentsException {
+		return Arguments.parser(args).parse();
+	}
+
+	/**
+	 * Splits the command line and parses the tokens in place.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(TOKENS)
+	public Arguments parseCommandLine() throws InvalidArgumentsException {
+		return Arguments.parser().parseCommandLine(commandLine);
+	}
+
+}
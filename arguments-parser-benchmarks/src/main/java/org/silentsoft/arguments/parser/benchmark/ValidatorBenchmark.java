@@ -0,0 +1,81 @@
+package org.silentsoft.arguments.parser.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.silentsoft.arguments.parser.Arguments;
+import org.silentsoft.arguments.parser.ArgumentsValidator;
+import org.silentsoft.arguments.parser.InvalidArgumentsException;
+import org.silentsoft.arguments.parser.ParseResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The overhead of validators and of the help check on top of parsing,
+ * and the cost of a rejection reported by an exception compared to a {@link ParseResult}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+	@Param({"10", "1000"})
+	private int size;
+
+	private String[] args;
+
+	private ArgumentsValidator trivialValidator;
+
+	private ArgumentsValidator lookupValidator;
+
+	private ArgumentsValidator rejectingValidator;
+
+	@Setup
+	public void setup() {
+		args = Fixtures.args(size);
+		trivialValidator = arguments -> true;
+		lookupValidator = arguments -> {
+			if (!arguments.containsKey(Fixtures.existingKey(0, size)) || !arguments.containsKey(Fixtures.existingKey(1, size))) {
+				throw new InvalidArgumentsException();
+			}
+			return arguments.getValue(Fixtures.missingKey(0)) == null;
+		};
+		rejectingValidator = arguments -> false;
+	}
+
+	@Benchmark
+	public Arguments withoutValidator() throws InvalidArgumentsException {
+		return Arguments.parser(args).parse();
+	}
+
+	@Benchmark
+	public Arguments trivialValidator() throws InvalidArgumentsException {
+		return Arguments.parser(args).validate(trivialValidator).parse();
+	}
+
+	@Benchmark
+	public Arguments lookupValidator() throws InvalidArgumentsException {
+		return Arguments.parser(args).validate(lookupValidator).parse();
+	}
+
+	@Benchmark
+	public Arguments withHelper() throws InvalidArgumentsException {
+		return Arguments.parser(args).help(arguments -> { }).parse();
+	}
+
+	@Benchmark
+	public Object rejectedParse() {
+		try {
+			return Arguments.parser(args).validate(rejectingValidator).parse();
+		} catch (InvalidArgumentsException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public ParseResult rejectedTryParse() {
+		return Arguments.parser(args).validate(rejectingValidator).tryParse();
+	}
+
+}
@@ -0,0 +1,18 @@
+package org.silentsoft.arguments.parser.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records the stack trace, so the code that has given the invalid arguments can be found.
+ */
+@Name("org.silentsoft.arguments.parser.Failure")
+@Label("Arguments Failure")
+@Category("Arguments Parser")
+final class FailureEvent extends jdk.jfr.Event {
+
+	@Label("Error Code")
+	String errorCode;
+
+}
@@ -0,0 +1,124 @@
+package org.silentsoft.arguments.parser.jfr;
+
+import jdk.jfr.Event;
+import org.silentsoft.arguments.parser.ArgumentsListener;
+import org.silentsoft.arguments.parser.ErrorCode;
+import org.silentsoft.arguments.parser.ParsingProfile;
+
+/**
+ * Emits JDK Flight Recorder events for the parse, validate and help phases, and for every failure.
+ * <pre>
+ * Arguments arguments = Arguments.parser(args).listen(FlightRecorderListener.INSTANCE).parse();
+ * </pre>
+ * An event is begun when its phase begins and committed when the phase ends, so the duration of the event is the duration of the phase,
+ * and the <code>threshold</code> setting of a recording applies to it. A parse which fails ends its event with the error code. The begun events are kept per thread, since a phase ends on the thread it began on.
+ * The thread-local events are not touched while an event is disabled, so the listener costs nearly nothing outside of a recording.
+ */
+public final class FlightRecorderListener implements ArgumentsListener {
+
+	public static final FlightRecorderListener INSTANCE = new FlightRecorderListener();
+
+	/**
+	 * The parse events which have been begun and not ended yet, by thread.
+	 */
+	static final ThreadLocal<ParseEvent> PARSE = new ThreadLocal<ParseEvent>();
+
+	private static final ThreadLocal<HelpEvent> HELP = new ThreadLocal<HelpEvent>();
+
+	private static final ThreadLocal<ValidateEvent> VALIDATE = new ThreadLocal<ValidateEvent>();
+
+	private FlightRecorderListener() { }
+
+	@Override
+	public void parsing() {
+		begin(new ParseEvent(), PARSE);
+	}
+
+	@Override
+	public void parsed(ParsingProfile profile, int tokens, int arguments, long nanos) {
+		ParseEvent event = end(new ParseEvent(), PARSE);
+		if (event != null && event.shouldCommit()) {
+			event.profile = profile.toString();
+			event.tokens = tokens;
+			event.arguments = arguments;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void helping() {
+		begin(new HelpEvent(), HELP);
+	}
+
+	@Override
+	public void helped(long nanos) {
+		HelpEvent event = end(new HelpEvent(), HELP);
+		if (event != null && event.shouldCommit()) {
+			event.commit();
+		}
+	}
+
+	@Override
+	public void validating() {
+		begin(new ValidateEvent(), VALIDATE);
+	}
+
+	@Override
+	public void validated(boolean valid, long nanos) {
+		ValidateEvent event = end(new ValidateEvent(), VALIDATE);
+		if (event != null && event.shouldCommit()) {
+			event.valid = valid;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Ends the parse event which has been begun on the thread, if the tokens have failed to be parsed, with the error code as its outcome.
+	 * The event is removed from the thread even if it has been disabled since, so a pooled thread does not keep it.
+	 */
+	@Override
+	public void failed(ErrorCode errorCode) {
+		ParseEvent parse = PARSE.get();
+		if (parse != null) {
+			PARSE.remove();
+			parse.end();
+			if (parse.shouldCommit()) {
+				parse.errorCode = errorCode.name();
+				parse.commit();
+			}
+		}
+
+		FailureEvent event = new FailureEvent();
+		if (event.isEnabled()) {
+			event.errorCode = errorCode.name();
+			event.commit();
+		}
+	}
+
+	/**
+	 * Begins the event if it is enabled. It replaces an event which has been begun on the thread but not ended, since its phase has failed.
+	 */
+	private static <T extends Event> void begin(T event, ThreadLocal<T> events) {
+		if (event.isEnabled()) {
+			events.set(event);
+			event.begin();
+		}
+	}
+
+	/**
+	 * @param type an event of the type, to tell whether the type is enabled
+	 * @return the event which has been begun on the thread, or <code>null</code> if the type is disabled or no event has been begun.
+	 */
+	private static <T extends Event> T end(T type, ThreadLocal<T> events) {
+		if (!type.isEnabled()) {
+			return null;
+		}
+		T event = events.get();
+		if (event != null) {
+			events.remove();
+			event.end();
+		}
+		return event;
+	}
+
+}
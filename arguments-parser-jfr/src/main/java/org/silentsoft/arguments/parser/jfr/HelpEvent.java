@@ -0,0 +1,13 @@
+package org.silentsoft.arguments.parser.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.silentsoft.arguments.parser.Help")
+@Label("Arguments Help")
+@Category("Arguments Parser")
+@StackTrace(false)
+final class HelpEvent extends jdk.jfr.Event {
+}
@@ -0,0 +1,34 @@
+package org.silentsoft.arguments.parser.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Splitting the tokens and normalizing them into arguments, which are done in a single pass.
+ */
+@Name("org.silentsoft.arguments.parser.Parse")
+@Label("Arguments Parse")
+@Description("Tokenizing and normalizing a command line")
+@Category("Arguments Parser")
+@StackTrace(false)
+final class ParseEvent extends jdk.jfr.Event {
+
+	@Label("Profile")
+	String profile;
+
+	@Label("Tokens")
+	int tokens;
+
+	@Label("Arguments")
+	int arguments;
+
+	/**
+	 * The reason why the tokens are not valid, or <code>null</code> if they have been parsed.
+	 */
+	@Label("Error Code")
+	String errorCode;
+
+}
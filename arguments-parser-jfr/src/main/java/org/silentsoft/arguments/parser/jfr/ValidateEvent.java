@@ -0,0 +1,17 @@
+package org.silentsoft.arguments.parser.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.silentsoft.arguments.parser.Validate")
+@Label("Arguments Validate")
+@Category("Arguments Parser")
+@StackTrace(false)
+final class ValidateEvent extends jdk.jfr.Event {
+
+	@Label("Valid")
+	boolean valid;
+
+}
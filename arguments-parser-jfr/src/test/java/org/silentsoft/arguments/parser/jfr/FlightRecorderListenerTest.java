@@ -0,0 +1,107 @@
+package org.silentsoft.arguments.parser.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.silentsoft.arguments.parser.Arguments;
+import org.silentsoft.arguments.parser.InvalidArgumentsException;
+import org.silentsoft.arguments.parser.ParsingOptions;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class FlightRecorderListenerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void thresholdTest() throws Exception {
+		Path file = folder.newFile("threshold.jfr").toPath();
+		try (Recording recording = new Recording()) {
+			recording.enable(ParseEvent.class);
+			recording.enable(ValidateEvent.class).withThreshold(Duration.ofMillis(10));
+			recording.start();
+
+			Arguments.parser(new String[] {"-a"}).listen(FlightRecorderListener.INSTANCE).validate(arguments -> true).parse();
+			Arguments.parser(new String[] {"-b"}).listen(FlightRecorderListener.INSTANCE).validate(arguments -> sleep(false)).tryParse();
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> validations = RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().equals("org.silentsoft.arguments.parser.Validate"))
+				.collect(Collectors.toList());
+		Assert.assertEquals(1, validations.size());
+		Assert.assertFalse(validations.get(0).getBoolean("valid"));
+	}
+
+	@Test
+	public void eventTest() throws Exception {
+		Path file = folder.newFile("parse.jfr").toPath();
+		try (Recording recording = new Recording()) {
+			recording.enable(ParseEvent.class);
+			recording.enable(ValidateEvent.class);
+			recording.enable(HelpEvent.class);
+			recording.enable(FailureEvent.class);
+			recording.start();
+
+			Arguments.parser(new String[] {"-a", "1", "--b"}, ParsingOptions.REMOVE_DASH_PREFIX).listen(FlightRecorderListener.INSTANCE).validate(arguments -> sleep(true)).parse();
+			Arguments.parser(new String[] {"--help"}).listen(FlightRecorderListener.INSTANCE).help(arguments -> { }).parse();
+			try {
+				Arguments.parser(new String[] {"value"}).listen(FlightRecorderListener.INSTANCE).parse();
+				Assert.fail();
+			} catch (InvalidArgumentsException e) {
+			}
+			Assert.assertNull(FlightRecorderListener.PARSE.get());
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().startsWith("org.silentsoft.arguments.parser."))
+				.collect(Collectors.toList());
+		Assert.assertEquals(6, events.size());
+
+		RecordedEvent parse = events.get(0);
+		Assert.assertEquals("org.silentsoft.arguments.parser.Parse", parse.getEventType().getName());
+		Assert.assertEquals(3, parse.getInt("tokens"));
+		Assert.assertEquals(2, parse.getInt("arguments"));
+		Assert.assertTrue(parse.getString("profile").contains("REMOVE_DASH_PREFIX"));
+		Assert.assertNull(parse.getString("errorCode"));
+
+		Assert.assertEquals("org.silentsoft.arguments.parser.Validate", events.get(1).getEventType().getName());
+		Assert.assertTrue(events.get(1).getBoolean("valid"));
+		Assert.assertTrue(events.get(1).getDuration().toMillis() >= 20);
+		Assert.assertTrue(events.get(1).getStartTime().isAfter(parse.getStartTime()));
+		Assert.assertFalse(parse.getDuration().isNegative());
+		Assert.assertEquals("org.silentsoft.arguments.parser.Parse", events.get(2).getEventType().getName());
+		Assert.assertEquals("org.silentsoft.arguments.parser.Help", events.get(3).getEventType().getName());
+		Assert.assertEquals("org.silentsoft.arguments.parser.Parse", events.get(4).getEventType().getName());
+		Assert.assertEquals("VALUE_WITHOUT_KEY", events.get(4).getString("errorCode"));
+		Assert.assertFalse(events.get(4).getDuration().isNegative());
+		Assert.assertEquals("org.silentsoft.arguments.parser.Failure", events.get(5).getEventType().getName());
+		Assert.assertEquals("VALUE_WITHOUT_KEY", events.get(5).getString("errorCode"));
+	}
+
+	/**
+	 * Takes 20 milliseconds to validate.
+	 */
+	private static boolean sleep(boolean valid) {
+		try {
+			Thread.sleep(20);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return valid;
+	}
+
+}
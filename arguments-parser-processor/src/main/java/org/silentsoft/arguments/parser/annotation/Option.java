@@ -0,0 +1,47 @@
+package org.silentsoft.arguments.parser.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a field of a class, or a method of an interface, to an argument key.<p>
+ * For each type that declares options, the <code>OptionProcessor</code> generates a <code>{TypeName}Binder</code> class
+ * in the same package at compile time. The binder reads the values through the <code>Arguments</code> API,
+ * so no reflection is involved at runtime.
+ * <pre>
+ * public class ServerOptions {
+ *
+ *     &#64;Option(value = "--host", required = true)
+ *     String host;
+ *
+ *     &#64;Option("--threads")
+ *     int threads = 4;
+ *
+ * }
+ *
+ * public static void main(String[] args) throws Exception {
+ *     ServerOptionsBinder binder = new ServerOptionsBinder();
+ *     ServerOptions options = binder.bind(Arguments.parser(args).validate(binder).parse());
+ * }
+ * </pre>
+ * Supported types are <code>String</code>, <code>int</code>, <code>long</code>, <code>double</code>, <code>boolean</code> and their wrappers,
+ * <code>java.time.Duration</code>, <code>int[]</code>, <code>long[]</code> and <code>List&lt;String&gt;</code>.<p>
+ * A field keeps its initial value, and a default method of an interface provides its value, if the key is not given.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface Option {
+
+	/**
+	 * @return the key to look up, e.g. <code>--threads</code>
+	 */
+	String value();
+
+	/**
+	 * @return <code>true</code> if the generated binder must reject arguments without this key.
+	 */
+	boolean required() default false;
+
+}
@@ -0,0 +1,313 @@
+package org.silentsoft.arguments.parser.processor;
+
+import org.silentsoft.arguments.parser.annotation.Option;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * Generates a <code>{TypeName}Binder</code> for each class or interface that declares {@link Option} members.
+ *
+ * @see Option
+ */
+@SupportedAnnotationTypes("org.silentsoft.arguments.parser.annotation.Option")
+public class OptionProcessor extends AbstractProcessor {
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Map<TypeElement, List<Element>> types = new LinkedHashMap<TypeElement, List<Element>>();
+		for (Element element : roundEnv.getElementsAnnotatedWith(Option.class)) {
+			types.computeIfAbsent((TypeElement) element.getEnclosingElement(), type -> new ArrayList<Element>()).add(element);
+		}
+
+		types.forEach((type, members) -> {
+			if (isValid(type, members)) {
+				try {
+					write(type, members);
+				} catch (IOException e) {
+					error(type, "Failed to generate the binder: " + e.getMessage());
+				}
+			}
+		});
+
+		return true;
+	}
+
+	private boolean isValid(TypeElement type, List<Element> members) {
+		boolean valid = true;
+
+		if (type.getModifiers().contains(Modifier.PRIVATE)) {
+			valid = error(type, "A type which declares options cannot be private.");
+		}
+		if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+			valid = error(type, "A nested type which declares options must be static.");
+		}
+		if (!type.getTypeParameters().isEmpty()) {
+			valid = error(type, "A type which declares options cannot have type parameters.");
+		}
+
+		if (type.getKind() == ElementKind.CLASS) {
+			if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+				valid = error(type, "A class which declares options cannot be abstract.");
+			}
+			List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+			if (constructors.stream().noneMatch(constructor -> constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE))) {
+				valid = error(type, "A class which declares options must have a non-private constructor without parameters.");
+			}
+			for (Element member : members) {
+				Set<Modifier> modifiers = member.getModifiers();
+				if (member.getKind() != ElementKind.FIELD) {
+					valid = error(member, "Only fields can be options of a class.");
+				} else if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)) {
+					valid = error(member, "An option field cannot be private, final or static.");
+				}
+			}
+		} else if (type.getKind() == ElementKind.INTERFACE) {
+			for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+				if (method.getModifiers().contains(Modifier.ABSTRACT) && method.getAnnotation(Option.class) == null) {
+					valid = error(method, "Every abstract method of an interface which declares options must be an option.");
+				}
+			}
+			for (Element member : members) {
+				if (member.getKind() != ElementKind.METHOD || member.getModifiers().contains(Modifier.STATIC) || !((ExecutableElement) member).getParameters().isEmpty()) {
+					valid = error(member, "An option of an interface must be an instance method without parameters.");
+				}
+			}
+		} else {
+			valid = error(type, "Options can only be declared by a class or an interface.");
+		}
+
+		for (Element member : members) {
+			if (OptionType.of(typeOf(member)) == null) {
+				valid = error(member, "The type " + typeOf(member) + " is not supported for an option.");
+			}
+		}
+
+		return valid;
+	}
+
+	private void write(TypeElement type, List<Element> members) throws IOException {
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String binderName = binderName(type);
+		String typeName = type.getQualifiedName().toString();
+		boolean isInterface = type.getKind() == ElementKind.INTERFACE;
+
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? binderName : packageName + "." + binderName, type);
+		try (PrintWriter out = new PrintWriter(file.openWriter())) {
+			if (!packageName.isEmpty()) {
+				out.printf("package %s;%n%n", packageName);
+			}
+			out.printf("/**%n * Generated by %s from {@link %s}.%n */%n", OptionProcessor.class.getName(), typeName);
+			out.printf("public final class %s implements org.silentsoft.arguments.parser.ArgumentsValidator {%n%n", binderName);
+
+			out.printf("\tpublic %s bind(org.silentsoft.arguments.parser.Arguments arguments) throws org.silentsoft.arguments.parser.InvalidArgumentsException {%n", typeName);
+			if (isInterface) {
+				out.printf("\t\treturn new Bound(arguments);%n");
+			} else {
+				out.printf("\t\t%s target = new %s();%n", typeName, typeName);
+				for (Element member : members) {
+					String field = member.getSimpleName().toString();
+					out.printf("\t\ttarget.%s = %s;%n", field, read(member, "target." + field));
+				}
+				out.printf("\t\treturn target;%n");
+			}
+			out.printf("\t}%n%n");
+
+			out.printf("\t/**%n\t * Checks that the required keys exist and that every value can be converted.%n\t */%n");
+			out.printf("\t@Override%n");
+			out.printf("\tpublic boolean isValid(org.silentsoft.arguments.parser.Arguments arguments) throws org.silentsoft.arguments.parser.InvalidArgumentsException {%n");
+			for (Element member : members) {
+				Option option = member.getAnnotation(Option.class);
+				if (option.required()) {
+					out.printf("\t\tif (!arguments.containsKey(%s)) {%n", literal(option.value()));
+					out.printf("\t\t\tthrow new org.silentsoft.arguments.parser.InvalidArgumentsException(%s);%n", literal(String.format("The argument '%s' is required.", option.value())));
+					out.printf("\t\t}%n");
+				}
+			}
+			out.printf("\t\tbind(arguments);%n");
+			out.printf("\t\treturn true;%n");
+			out.printf("\t}%n");
+
+			if (isInterface) {
+				out.printf("%n\tprivate static final class Bound implements %s {%n%n", typeName);
+				for (Element member : members) {
+					out.printf("\t\tprivate final %s %s;%n%n", typeOf(member), member.getSimpleName());
+				}
+				out.printf("\t\tprivate Bound(org.silentsoft.arguments.parser.Arguments arguments) throws org.silentsoft.arguments.parser.InvalidArgumentsException {%n");
+				for (Element member : members) {
+					String fallback = member.getModifiers().contains(Modifier.DEFAULT) ? String.format("%s.super.%s()", typeName, member.getSimpleName()) : zero(typeOf(member));
+					out.printf("\t\t\tthis.%s = %s;%n", member.getSimpleName(), read(member, fallback));
+				}
+				out.printf("\t\t}%n");
+				for (Element member : members) {
+					out.printf("%n\t\t@Override%n");
+					out.printf("\t\tpublic %s %s() {%n", typeOf(member), member.getSimpleName());
+					out.printf("\t\t\treturn %s;%n", member.getSimpleName());
+					out.printf("\t\t}%n");
+				}
+				out.printf("%n\t}%n");
+			}
+
+			out.printf("%n}%n");
+		}
+	}
+
+	/**
+	 * @return an expression which reads the option, or evaluates the <code>fallback</code> if the key does not exist.
+	 */
+	private String read(Element member, String fallback) {
+		String key = literal(member.getAnnotation(Option.class).value());
+		OptionType type = OptionType.of(typeOf(member));
+		if (type.wrapper != null) {
+			return String.format("arguments.containsKey(%s) ? %s.valueOf(arguments.%s(%s, %s)) : %s", key, type.wrapper, type.accessor, key, type.zero, fallback);
+		}
+		return String.format("arguments.%s(%s, %s)", type.accessor, key, fallback);
+	}
+
+	/**
+	 * @return the value of an interface option whose key does not exist and which has no default method.
+	 */
+	private static String zero(TypeMirror type) {
+		OptionType optionType = OptionType.of(type);
+		return optionType.wrapper != null ? "null" : optionType.zero;
+	}
+
+	private static TypeMirror typeOf(Element member) {
+		return member.getKind() == ElementKind.METHOD ? ((ExecutableElement) member).getReturnType() : member.asType();
+	}
+
+	private static String binderName(TypeElement type) {
+		StringBuilder builder = new StringBuilder(type.getSimpleName());
+		for (Element enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+			builder.insert(0, '_').insert(0, enclosing.getSimpleName());
+		}
+		return builder.append("Binder").toString();
+	}
+
+	private static String literal(String value) {
+		StringBuilder builder = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			switch (c) {
+			case '"':
+				builder.append("\\\"");
+				break;
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			default:
+				builder.append(c);
+			}
+		}
+		return builder.append('"').toString();
+	}
+
+	private boolean error(Element element, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+		return false;
+	}
+
+	/**
+	 * Supported types of options, with the typed accessor of <code>Arguments</code> which reads them.
+	 */
+	private enum OptionType {
+
+		STRING("getValue", null, "null"),
+		INT("getInt", null, "0"),
+		LONG("getLong", null, "0L"),
+		DOUBLE("getDouble", null, "0d"),
+		BOOLEAN("getBoolean", null, "false"),
+		INTEGER_WRAPPER("getInt", "Integer", "0"),
+		LONG_WRAPPER("getLong", "Long", "0L"),
+		DOUBLE_WRAPPER("getDouble", "Double", "0d"),
+		BOOLEAN_WRAPPER("getBoolean", "Boolean", "false"),
+		DURATION("getDuration", null, "null"),
+		INT_ARRAY("getInts", null, "null"),
+		LONG_ARRAY("getLongs", null, "null"),
+		STRING_LIST("getValues", null, "null");
+
+		private final String accessor;
+
+		/**
+		 * The wrapper class of a boxed type, whose accessor returns a primitive.
+		 */
+		private final String wrapper;
+
+		private final String zero;
+
+		OptionType(String accessor, String wrapper, String zero) {
+			this.accessor = accessor;
+			this.wrapper = wrapper;
+			this.zero = zero;
+		}
+
+		/**
+		 * @return <code>null</code> if the type is not supported.
+		 */
+		static OptionType of(TypeMirror type) {
+			switch (type.getKind()) {
+			case INT:
+				return INT;
+			case LONG:
+				return LONG;
+			case DOUBLE:
+				return DOUBLE;
+			case BOOLEAN:
+				return BOOLEAN;
+			case ARRAY:
+				TypeKind component = ((ArrayType) type).getComponentType().getKind();
+				return component == TypeKind.INT ? INT_ARRAY : component == TypeKind.LONG ? LONG_ARRAY : null;
+			case DECLARED:
+				List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+				switch (((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString()) {
+				case "java.lang.String":
+					return STRING;
+				case "java.lang.Integer":
+					return INTEGER_WRAPPER;
+				case "java.lang.Long":
+					return LONG_WRAPPER;
+				case "java.lang.Double":
+					return DOUBLE_WRAPPER;
+				case "java.lang.Boolean":
+					return BOOLEAN_WRAPPER;
+				case "java.time.Duration":
+					return DURATION;
+				case "java.util.List":
+					return typeArguments.size() == 1 && "java.lang.String".equals(typeArguments.get(0).toString()) ? STRING_LIST : null;
+				default:
+					return null;
+				}
+			default:
+				return null;
+			}
+		}
+
+	}
+
+}
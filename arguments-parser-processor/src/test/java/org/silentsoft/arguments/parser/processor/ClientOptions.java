@@ -0,0 +1,18 @@
+package org.silentsoft.arguments.parser.processor;
+
+import org.silentsoft.arguments.parser.annotation.Option;
+
+public interface ClientOptions {
+
+	@Option(value = "--url", required = true)
+	String url();
+
+	@Option("--retries")
+	default int retries() {
+		return 3;
+	}
+
+	@Option("--compress")
+	Boolean compress();
+
+}
@@ -0,0 +1,64 @@
+package org.silentsoft.arguments.parser.processor;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.silentsoft.arguments.parser.Arguments;
+import org.silentsoft.arguments.parser.InvalidArgumentsException;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+public class OptionProcessorTest {
+
+	@Test
+	public void classTest() throws InvalidArgumentsException {
+		ServerOptionsBinder binder = new ServerOptionsBinder();
+		{
+			ServerOptions options = binder.bind(Arguments.parser(new String[] {"--host=localhost", "--threads", "8", "--max-memory=1024", "--verbose", "--timeout=5s", "--ports", "80", "443", "--tags", "a", "b"}).validate(binder).parse());
+			Assert.assertEquals("localhost", options.host);
+			Assert.assertEquals(8, options.threads);
+			Assert.assertEquals(Long.valueOf(1024), options.maxMemory);
+			Assert.assertTrue(options.verbose);
+			Assert.assertEquals(Duration.ofSeconds(5), options.timeout);
+			Assert.assertArrayEquals(new int[] {80, 443}, options.ports);
+			Assert.assertEquals(Arrays.asList("a", "b"), options.tags);
+		}
+		{
+			ServerOptions options = binder.bind(Arguments.parser(new String[] {"--host=localhost"}).validate(binder).parse());
+			Assert.assertEquals(4, options.threads);
+			Assert.assertNull(options.maxMemory);
+			Assert.assertFalse(options.verbose);
+			Assert.assertEquals(Duration.ofSeconds(30), options.timeout);
+			Assert.assertArrayEquals(new int[] {8080}, options.ports);
+			Assert.assertNull(options.tags);
+		}
+		Assert.assertEquals(0.5, new ServerOptions_NestedBinder().bind(Arguments.parser(new String[] {"--ratio=0.5"}).parse()).ratio, 0);
+	}
+
+	@Test
+	public void interfaceTest() throws InvalidArgumentsException {
+		ClientOptionsBinder binder = new ClientOptionsBinder();
+		{
+			ClientOptions options = binder.bind(Arguments.parser(new String[] {"--url=http://localhost", "--retries=5", "--compress=false"}).validate(binder).parse());
+			Assert.assertEquals("http://localhost", options.url());
+			Assert.assertEquals(5, options.retries());
+			Assert.assertEquals(Boolean.FALSE, options.compress());
+		}
+		{
+			ClientOptions options = binder.bind(Arguments.parser(new String[] {"--url=http://localhost"}).validate(binder).parse());
+			Assert.assertEquals(3, options.retries());
+			Assert.assertNull(options.compress());
+		}
+	}
+
+	@Test(expected = InvalidArgumentsException.class)
+	public void requiredTest() throws InvalidArgumentsException {
+		Arguments.parser(new String[] {"--threads=8"}).validate(new ServerOptionsBinder()).parse();
+	}
+
+	@Test(expected = InvalidArgumentsException.class)
+	public void conversionTest() throws InvalidArgumentsException {
+		Arguments.parser(new String[] {"--host=localhost", "--threads=eight"}).validate(new ServerOptionsBinder()).parse();
+	}
+
+}
@@ -0,0 +1,38 @@
+package org.silentsoft.arguments.parser.processor;
+
+import org.silentsoft.arguments.parser.annotation.Option;
+
+import java.time.Duration;
+import java.util.List;
+
+public class ServerOptions {
+
+	@Option(value = "--host", required = true)
+	String host;
+
+	@Option("--threads")
+	int threads = 4;
+
+	@Option("--max-memory")
+	Long maxMemory;
+
+	@Option("--verbose")
+	boolean verbose;
+
+	@Option("--timeout")
+	Duration timeout = Duration.ofSeconds(30);
+
+	@Option("--ports")
+	int[] ports = new int[] {8080};
+
+	@Option("--tags")
+	List<String> tags;
+
+	static class Nested {
+
+		@Option("--ratio")
+		double ratio = 1.0;
+
+	}
+
+}
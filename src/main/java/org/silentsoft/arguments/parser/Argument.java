@@ -1,62 +1,324 @@
 package org.silentsoft.arguments.parser;
 
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 
 public class Argument implements Comparable<Argument> {
-	
-	private String key;
-	
+
+	private final String key;
+
+	/**
+	 * An {@link ArrayList} while the argument is being parsed, and an unmodifiable list once it has been {@link #seal() sealed},
+	 * or <code>null</code> if a subclass keeps the values.
+	 */
 	private List<String> values;
-	
-	private Argument() { }
-	
+
+	private boolean sealed;
+
+	private int hash;
+
+	private String string;
+
+	/**
+	 * The value converted by the latest typed accessor. It is volatile to publish converted arrays safely.
+	 */
+	private volatile Object converted;
+
+	/**
+	 * Creates an argument that accepts values by {@link #add(String)} until it is {@link #seal() sealed}.
+	 */
+	Argument(String key) {
+		this(key, new ArrayList<String>(1));
+	}
+
+	/**
+	 * @param values <code>null</code> if a subclass keeps the values, and overrides the methods which access them.
+	 */
+	Argument(String key, List<String> values) {
+		this.key = key;
+		this.values = values;
+	}
+
 	public String getKey() {
 		return key;
 	}
-	
+
 	public String getValue() {
-		return values.isEmpty() ? null : String.join(" ", values);
+		switch (valueCount()) {
+		case 0:
+			return null;
+		case 1:
+			return value(0);
+		default:
+			return String.join(" ", getValues());
+		}
 	}
-	
+
+	/**
+	 * @return an unmodifiable list of the values
+	 */
 	public List<String> getValues() {
 		return values;
 	}
-	
+
 	protected static Argument of(String key) {
 		return of(key, new String[] {});
 	}
-	
+
 	protected static Argument of(String key, String... values) {
-		Argument argument = new Argument();
-		argument.key = key;
-		argument.values = new ArrayList<String>(Arrays.asList(values));
-		return argument;
+		return new Argument(key, Arrays.asList(values.clone())).seal();
+	}
+
+	void add(String value) {
+		values.add(value);
+	}
+
+	/**
+	 * @return the number of values, without creating the list of them.
+	 */
+	int valueCount() {
+		return values.size();
+	}
+
+	/**
+	 * @param i
+	 * @return the <code>i</code>th value, without creating the list of them.
+	 */
+	String value(int i) {
+		return values.get(i);
+	}
+
+	Argument seal() {
+		if (values != null) {
+			values = values.isEmpty() ? Collections.<String>emptyList() : Collections.unmodifiableList(values);
+		}
+		return seal(renderedHashCode());
+	}
+
+	/**
+	 * @param hash the {@link #hashCode()} which has been computed in advance, so the values need not be read
+	 */
+	Argument seal(int hash) {
+		this.hash = hash;
+		sealed = true;
+		return this;
+	}
+
+	int toInt() throws InvalidArgumentsException {
+		return convert(Integer.class, "an int", Integer::valueOf);
+	}
+
+	long toLong() throws InvalidArgumentsException {
+		return convert(Long.class, "a long", Long::valueOf);
+	}
+
+	double toDouble() throws InvalidArgumentsException {
+		return convert(Double.class, "a double", Double::valueOf);
 	}
-	
+
+	boolean toBoolean() throws InvalidArgumentsException {
+		if (valueCount() == 0) {
+			return true;
+		}
+
+		return convert(Boolean.class, "a boolean", value -> {
+			if ("true".equalsIgnoreCase(value)) {
+				return Boolean.TRUE;
+			} else if ("false".equalsIgnoreCase(value)) {
+				return Boolean.FALSE;
+			}
+			throw new IllegalArgumentException(value);
+		});
+	}
+
+	Duration toDuration() throws InvalidArgumentsException {
+		return convert(Duration.class, "a duration", Argument::parseDuration);
+	}
+
+	int[] toInts() throws InvalidArgumentsException {
+		Object converted = this.converted;
+		if (!(converted instanceof int[])) {
+			int[] ints = new int[valueCount()];
+			for (int i = 0; i < ints.length; i++) {
+				try {
+					ints[i] = Integer.parseInt(value(i).trim());
+				} catch (NumberFormatException e) {
+					throw invalid(value(i), "an int");
+				}
+			}
+			this.converted = converted = ints;
+		}
+		return ((int[]) converted).clone();
+	}
+
+	long[] toLongs() throws InvalidArgumentsException {
+		Object converted = this.converted;
+		if (!(converted instanceof long[])) {
+			long[] longs = new long[valueCount()];
+			for (int i = 0; i < longs.length; i++) {
+				try {
+					longs[i] = Long.parseLong(value(i).trim());
+				} catch (NumberFormatException e) {
+					throw invalid(value(i), "a long");
+				}
+			}
+			this.converted = converted = longs;
+		}
+		return ((long[]) converted).clone();
+	}
+
+	private <T> T convert(Class<T> type, String typeName, Function<String, T> converter) throws InvalidArgumentsException {
+		Object converted = this.converted;
+		if (type.isInstance(converted)) {
+			return type.cast(converted);
+		}
+
+		if (valueCount() != 1) {
+			throw new InvalidArgumentsException(ErrorCode.INVALID_VALUE, String.format("The argument '%s' requires a single value but has %d.", key, valueCount()));
+		}
+
+		T value;
+		try {
+			value = converter.apply(value(0).trim());
+		} catch (IllegalArgumentException | ArithmeticException | DateTimeParseException e) {
+			throw invalid(value(0), typeName);
+		}
+		this.converted = value;
+		return value;
+	}
+
+	private InvalidArgumentsException invalid(String value, String typeName) {
+		return new InvalidArgumentsException(ErrorCode.INVALID_VALUE, String.format("The value '%s' of the argument '%s' is not %s.", value, key, typeName));
+	}
+
+	private static Duration parseDuration(String value) {
+		if (value.startsWith("P") || value.startsWith("p") || value.startsWith("-P") || value.startsWith("-p")) {
+			return Duration.parse(value);
+		}
+
+		int unit = value.length();
+		while (unit > 0 && Character.isLetter(value.charAt(unit - 1))) {
+			unit--;
+		}
+		long amount = Long.parseLong(value.substring(0, unit));
+		switch (value.substring(unit)) {
+		case "ns":
+			return Duration.ofNanos(amount);
+		case "us":
+			return Duration.ofNanos(Math.multiplyExact(amount, 1000L));
+		case "ms":
+			return Duration.ofMillis(amount);
+		case "s":
+			return Duration.ofSeconds(amount);
+		case "m":
+			return Duration.ofMinutes(amount);
+		case "h":
+			return Duration.ofHours(amount);
+		case "d":
+			return Duration.ofDays(amount);
+		default:
+			throw new IllegalArgumentException(value);
+		}
+	}
+
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + key.hashCode();
-		result = prime * result + values.hashCode();
-		return result;
+		return sealed ? hash : renderedHashCode();
 	}
-	
+
+	/**
+	 * Two arguments are equal if their {@link #toString()} are equal.
+	 */
 	@Override
 	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj instanceof Argument) {
+			Argument argument = (Argument) obj;
+			if (sealed && argument.sealed && hash != argument.hash) {
+				return false;
+			}
+			return compareTo(argument) == 0;
+		}
 		return obj == null ? false : toString().equals(obj.toString());
 	}
-	
+
+	/**
+	 * Compares the {@link #toString()} of the arguments lexicographically, without building them.
+	 */
 	@Override
 	public int compareTo(Argument o) {
-		return toString().compareTo(o.toString());
+		int segments = 1 + valueCount() * 2, otherSegments = 1 + o.valueCount() * 2;
+		int segment = 0, position = 0, otherSegment = 0, otherPosition = 0;
+		while (true) {
+			while (segment < segments && position == segmentLength(segment)) {
+				segment++;
+				position = 0;
+			}
+			while (otherSegment < otherSegments && otherPosition == o.segmentLength(otherSegment)) {
+				otherSegment++;
+				otherPosition = 0;
+			}
+			if (segment == segments || otherSegment == otherSegments) {
+				return (segment == segments ? 0 : 1) - (otherSegment == otherSegments ? 0 : 1);
+			}
+
+			char c = segmentCharAt(segment, position++), otherC = o.segmentCharAt(otherSegment, otherPosition++);
+			if (c != otherC) {
+				return c - otherC;
+			}
+		}
 	}
-	
+
 	@Override
 	public String toString() {
-		return values.isEmpty() ? key : String.format("%s=%s", key, String.join(" ", values));
+		String string = this.string;
+		if (string == null) {
+			string = valueCount() == 0 ? key : key.concat("=").concat(String.join(" ", getValues()));
+			if (sealed) {
+				this.string = string;
+			}
+		}
+		return string;
 	}
-	
+
+	/**
+	 * Same as <code>toString().hashCode()</code>.
+	 */
+	private int renderedHashCode() {
+		int hash = 0;
+		for (int segment = 0, segments = 1 + valueCount() * 2; segment < segments; segment++) {
+			for (int position = 0, length = segmentLength(segment); position < length; position++) {
+				hash = 31 * hash + segmentCharAt(segment, position);
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * The {@link #toString()} of an argument is made of segments: the key, and then a separator followed by each value.
+	 */
+	private int segmentLength(int segment) {
+		if (segment == 0) {
+			return key.length();
+		}
+		return (segment & 1) == 1 ? 1 : value(segment / 2 - 1).length();
+	}
+
+	private char segmentCharAt(int segment, int position) {
+		if (segment == 0) {
+			return key.charAt(position);
+		}
+		if ((segment & 1) == 1) {
+			return segment == 1 ? '=' : ' ';
+		}
+		return value(segment / 2 - 1).charAt(position);
+	}
+
 }
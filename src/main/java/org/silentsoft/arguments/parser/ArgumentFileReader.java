@@ -0,0 +1,66 @@
+package org.silentsoft.arguments.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the tokens of an argument file through fixed size buffers, so neither the file nor its tokens are held as a whole.
+ * The file is decoded as UTF-8 and split by {@link CommandLineTokenizer}.
+ */
+final class ArgumentFileReader {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private ArgumentFileReader() { }
+
+	static void read(Path path, CommandLineTokenizer.TokenConsumer consumer) throws IOException, InvalidArgumentsException {
+		CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPORT)
+				.onUnmappableCharacter(CodingErrorAction.REPORT);
+		ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+		CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+		CommandLineTokenizer tokenizer = new CommandLineTokenizer(consumer);
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			boolean endOfInput = false;
+			while (!endOfInput) {
+				endOfInput = channel.read(bytes) == -1;
+				bytes.flip();
+				CoderResult result;
+				do {
+					result = decoder.decode(bytes, chars, endOfInput);
+					if (result.isError()) {
+						result.throwException();
+					}
+					drain(chars, tokenizer);
+				} while (result.isOverflow());
+				bytes.compact();
+			}
+
+			CoderResult result;
+			do {
+				result = decoder.flush(chars);
+				drain(chars, tokenizer);
+			} while (result.isOverflow());
+		}
+
+		tokenizer.end();
+	}
+
+	private static void drain(CharBuffer chars, CommandLineTokenizer tokenizer) throws InvalidArgumentsException {
+		chars.flip();
+		while (chars.hasRemaining()) {
+			tokenizer.feed(chars.get());
+		}
+		chars.clear();
+	}
+
+}
@@ -0,0 +1,80 @@
+package org.silentsoft.arguments.parser;
+
+/**
+ * Classifies a single command line token in one pass, without regular expressions.<p>
+ * A scanner is reusable: each call to {@link #scan(CharSequence)} replaces the previous state.
+ */
+final class ArgumentScanner {
+
+	private CharSequence token;
+
+	private int length;
+
+	private int dashes;
+
+	private int equal;
+
+	/**
+	 * @param token
+	 * @return <code>true</code> if the token starts with a dash, which means it is a key rather than a value.
+	 */
+	boolean scan(CharSequence token) {
+		this.token = token;
+		this.length = token.length();
+		this.dashes = 0;
+		this.equal = -1;
+
+		while (dashes < length && token.charAt(dashes) == '-') {
+			dashes++;
+		}
+		if (dashes == 0) {
+			return false;
+		}
+
+		for (int i = dashes; i < length; i++) {
+			if (token.charAt(i) == '=') {
+				equal = i;
+				break;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of leading dashes.
+	 */
+	int dashes() {
+		return dashes;
+	}
+
+	/**
+	 * @return <code>true</code> if the token consists of dashes only, e.g. <code>--</code>
+	 */
+	boolean isMissingKey() {
+		return dashes == length;
+	}
+
+	boolean hasValue() {
+		return equal != -1;
+	}
+
+	String key() {
+		return token.subSequence(0, equal == -1 ? length : equal).toString();
+	}
+
+	String value() {
+		return equal == -1 ? null : token.subSequence(equal + 1, length).toString();
+	}
+
+	/**
+	 * Equivalent to <code>key.replaceFirst("(-)+", "")</code> for a key that starts with a dash.
+	 */
+	static String stripDashes(String key) {
+		int dashes = 0;
+		while (dashes < key.length() && key.charAt(dashes) == '-') {
+			dashes++;
+		}
+		return dashes == 0 ? key : key.substring(dashes);
+	}
+
+}
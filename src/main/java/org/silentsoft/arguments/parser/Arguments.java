@@ -1,10 +1,9 @@
 package org.silentsoft.arguments.parser;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.function.BiFunction;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public final class Arguments implements Iterable<Argument> {
 
@@ -31,96 +30,128 @@ public final class Arguments implements Iterable<Argument> {
 		return new ArgumentsParser(args);
 	}
 
+	/**
+	 * Creates a parser without command line, to be configured for {@link ArgumentsParser#incremental()}.
+	 *
+	 * @return
+	 */
+	public static ArgumentsParser parser() {
+		return new ArgumentsParser(null);
+	}
+
 	public static ArgumentsParser parser(String[] args, ParsingOptions... parsingOptions) {
 		return new ArgumentsParser(args, parsingOptions);
 	}
 
-	private TreeSet<Argument> set;
-
-	private ArrayList<ParsingOptions> options;
-
-	Arguments(String[] args, ParsingOptions... parsingOptions) throws InvalidArgumentsException {
-		set = new TreeSet<Argument>();
-		options = new ArrayList<ParsingOptions>();
-
-		if (args != null) {
-			Argument last = null;
-			for (String arg : args) {
-				if (arg.startsWith("-")) {
-					if (arg.matches("(-)+")) {
-						throw new InvalidArgumentsException("The argument key is missing.");
-					}
-
-					final Argument argument;
-					int indexOfEqual = arg.indexOf("=");
-					if (indexOfEqual == -1) {
-						argument = Argument.of(arg);
-						add(argument);
-					} else {
-						String[] pair = arg.split("=", 2);
-						if (get(pair[0]) == null) {
-							argument = Argument.of(pair[0], pair[1]);
-							add(argument);
-						} else {
-							argument = get(pair[0]);
-							argument.getValues().add(pair[1]);
-						}
-					}
-					last = argument;
-				} else {
-					if (isEmpty()) {
-						throw new InvalidArgumentsException("The first argument must be starts with '-' or '--'.");
-					}
-
-					last.getValues().add(arg);
-				}
-			}
-		}
+	/**
+	 * The arguments in the order of {@link Argument#compareTo(Argument)}.
+	 */
+	private final Argument[] arguments;
 
-		if (parsingOptions != null) {
-			options = new ArrayList<ParsingOptions>(Arrays.asList(parsingOptions));
-		}
+	private final ParsingProfile profile;
 
-		assertOptions(options);
-
-		TreeSet<Argument> _set = new TreeSet<Argument>();
-		Function<String, String> transform = (key) -> getOptions().contains(ParsingOptions.REMOVE_DASH_PREFIX) ? key.replaceFirst("(-)+", "") : key;
-		set.forEach(argument -> {
-			String key;
-			if (argument.getKey().startsWith("--") && getOptions().contains(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH)) {
-				key = argument.getKey().toLowerCase();
-			} else if (!argument.getKey().startsWith("--") && getOptions().contains(ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH)) {
-				key = argument.getKey().toLowerCase();
-			} else if (getOptions().contains(ParsingOptions.CASE_INSENSITIVE)) {
-				key = argument.getKey().toLowerCase();
-			} else {
-				key = argument.getKey();
-			}
+	private final ArgumentsIndex index;
 
-			if (!_set.stream().anyMatch(arg -> transform.apply(arg.getKey()).equals(transform.apply(key)))) {
-				_set.add(Argument.of(transform.apply(key), argument.getValues().toArray(new String[] {})));
-			}
-		});
+	/**
+	 * The sources in order of precedence, including {@link ArgumentsSources#COMMAND_LINE}, or <code>null</code> if there is only the command line.
+	 */
+	private final ArgumentsSource[] sources;
+
+	/**
+	 * The arguments resolved from the sources, by the normalized key. A key that no source has is not kept,
+	 * so the map holds at most one entry for each key that the sources have.
+	 */
+	private final ConcurrentMap<String, Argument> resolved;
+
+	private final ArgumentsListener listener;
 
-		options = getOptions();
-		set = _set;
+	private final List<String> subcommands;
+
+	Arguments(ParsingProfile profile, ArgumentsIndex index, List<Argument> arguments, List<ArgumentsSource> sources, ArgumentsListener listener, List<String> subcommands) {
+		this.profile = profile;
+		this.index = index;
+		this.listener = listener;
+		this.subcommands = subcommands;
+		if (sources.isEmpty()) {
+			this.sources = null;
+			this.resolved = null;
+		} else {
+			this.sources = sources.toArray(new ArgumentsSource[sources.size()]);
+			this.resolved = new ConcurrentHashMap<String, Argument>();
+		}
+
+		for (Argument argument : arguments) {
+			argument.seal();
+		}
+		this.arguments = arguments.toArray(new Argument[arguments.size()]);
+		Arrays.sort(this.arguments);
 	}
-	
-	private boolean add(Argument argument) {
-		return set.add(argument);
+
+	/**
+	 * @return the path of the subcommands which have been selected, e.g. <code>[remote, add]</code>, or an empty list if there is none.
+	 * @see ArgumentsParser#subcommand(String, ArgumentsConfigurer)
+	 */
+	public List<String> getSubcommands() {
+		return subcommands;
+	}
+
+	ParsingProfile profile() {
+		return profile;
 	}
 
 	public int size() {
-		return set.size();
+		return arguments.length;
 	}
 	
 	public boolean isEmpty() {
-		return set.isEmpty();
+		return arguments.length == 0;
 	}
 	
+	/**
+	 * If the parser has been given {@link ArgumentsParser#sources(ArgumentsSource...) sources}, a key is looked up
+	 * in each source in order until it is found, and the result is cached. A key that no source has is looked up again each time. The returned argument has the value of the source as a single value.
+	 *
+	 * @param key
+	 * @return
+	 */
 	public Argument get(String key) {
-		Optional<Argument> optional = stream(key).findAny();
-		return optional.isPresent() ? optional.get() : null;
+		Argument argument = find(key);
+		if (listener != ArgumentsListener.NOOP && key != null) {
+			listener.lookedUp(key, argument != null);
+		}
+		return argument;
+	}
+
+	private Argument find(String key) {
+		if (sources == null || key == null) {
+			return index.get(key);
+		}
+
+		if (sources[0] == ArgumentsSources.COMMAND_LINE) {
+			Argument argument = index.get(key);
+			if (argument != null) {
+				return argument;
+			}
+		}
+
+		return resolved.computeIfAbsent(profile.normalize(key), k -> resolve(key));
+	}
+
+	private Argument resolve(String key) {
+		for (ArgumentsSource source : sources) {
+			if (source == ArgumentsSources.COMMAND_LINE) {
+				Argument argument = index.get(key);
+				if (argument != null) {
+					return argument;
+				}
+			} else {
+				String value = source.getValue(key);
+				if (value != null) {
+					return Argument.of(profile.normalize(key), value);
+				}
+			}
+		}
+		return null;
 	}
 
 	public String getValue(String key) {
@@ -140,113 +171,97 @@ public final class Arguments implements Iterable<Argument> {
 		Argument argument = get(key);
 		return argument != null ? argument.getValues() : defaultValues;
 	}
+
+	/**
+	 * The value is converted only once and then cached, as are the values of the other typed accessors.
+	 *
+	 * @param key
+	 * @param defaultValue
+	 * @return
+	 * @throws InvalidArgumentsException if the argument does not have a single value that is an <code>int</code>
+	 */
+	public int getInt(String key, int defaultValue) throws InvalidArgumentsException {
+		Argument argument = get(key);
+		return argument != null ? argument.toInt() : defaultValue;
+	}
+
+	public long getLong(String key, long defaultValue) throws InvalidArgumentsException {
+		Argument argument = get(key);
+		return argument != null ? argument.toLong() : defaultValue;
+	}
+
+	public double getDouble(String key, double defaultValue) throws InvalidArgumentsException {
+		Argument argument = get(key);
+		return argument != null ? argument.toDouble() : defaultValue;
+	}
+
+	/**
+	 * An argument without value, such as <code>--verbose</code>, is <code>true</code>.
+	 * Otherwise the value must be either <code>true</code> or <code>false</code>, regardless of case.
+	 *
+	 * @param key
+	 * @param defaultValue
+	 * @return
+	 * @throws InvalidArgumentsException
+	 */
+	public boolean getBoolean(String key, boolean defaultValue) throws InvalidArgumentsException {
+		Argument argument = get(key);
+		return argument != null ? argument.toBoolean() : defaultValue;
+	}
+
+	/**
+	 * Supported formats are:<br>
+	 * <ul>
+	 * <li>ISO-8601 such as <code>PT1M30S</code>, see {@link Duration#parse(CharSequence)}</li>
+	 * <li>An integer followed by a unit, which is one of <code>ns</code>, <code>us</code>, <code>ms</code>, <code>s</code>, <code>m</code>, <code>h</code> and <code>d</code> such as <code>500ms</code></li>
+	 * </ul>
+	 *
+	 * @param key
+	 * @param defaultValue
+	 * @return
+	 * @throws InvalidArgumentsException
+	 */
+	public Duration getDuration(String key, Duration defaultValue) throws InvalidArgumentsException {
+		Argument argument = get(key);
+		return argument != null ? argument.toDuration() : defaultValue;
+	}
+
+	/**
+	 * @param key
+	 * @param defaultValues
+	 * @return a new array of the converted values, or the <code>defaultValues</code> if the key does not exist.
+	 * @throws InvalidArgumentsException if any of the values is not an <code>int</code>
+	 */
+	public int[] getInts(String key, int[] defaultValues) throws InvalidArgumentsException {
+		Argument argument = get(key);
+		return argument != null ? argument.toInts() : defaultValues;
+	}
+
+	public long[] getLongs(String key, long[] defaultValues) throws InvalidArgumentsException {
+		Argument argument = get(key);
+		return argument != null ? argument.toLongs() : defaultValues;
+	}
 	
 	public boolean containsKey(String key) {
-		return stream(key).findAny().isPresent();
+		return get(key) != null;
 	}
 
+	/**
+	 * Only the command line is checked, not the sources.
+	 *
+	 * @return
+	 */
 	public boolean requiresHelp() {
-		if (containsKey("-help") || containsKey("--help") || containsKey("-?") || containsKey("--?")) {
+		if (index.get("-help") != null || index.get("--help") != null || index.get("-?") != null || index.get("--?") != null) {
 			return true;
 		}
 
 		return false;
 	}
 
-	private void assertOptions(ArrayList<ParsingOptions> options) throws InvalidArgumentsException {
-		BiFunction<ParsingOptions, ParsingOptions, String> message = (x, y) -> {
-			return String.format("%s and %s parsing options cannot be used together.", x.name(), y.name());
-		};
-		
-		if (options.contains(ParsingOptions.LEAVE_DASH_PREFIX) && options.contains(ParsingOptions.REMOVE_DASH_PREFIX)) {
-			throw new InvalidArgumentsException(message.apply(ParsingOptions.LEAVE_DASH_PREFIX, ParsingOptions.REMOVE_DASH_PREFIX));
-		}
-		
-		if (options.contains(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH) && options.contains(ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH)) {
-			throw new InvalidArgumentsException(message.apply(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH, ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH));
-		}
-		
-		if (options.contains(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH) && options.contains(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH)) {
-			throw new InvalidArgumentsException(message.apply(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH, ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH));
-		}
-		
-		if (options.contains(ParsingOptions.CASE_SENSITIVE) && options.contains(ParsingOptions.CASE_INSENSITIVE)) {
-			throw new InvalidArgumentsException(message.apply(ParsingOptions.CASE_SENSITIVE, ParsingOptions.CASE_INSENSITIVE));
-		}
-		
-		if (options.contains(ParsingOptions.LEAVE_DASH_PREFIX)) {
-			if (options.contains(ParsingOptions.CASE_SENSITIVE)) {
-				throw new InvalidArgumentsException(message.apply(ParsingOptions.LEAVE_DASH_PREFIX, ParsingOptions.CASE_SENSITIVE));
-			}
-			
-			if (options.contains(ParsingOptions.CASE_INSENSITIVE)) {
-				throw new InvalidArgumentsException(message.apply(ParsingOptions.LEAVE_DASH_PREFIX, ParsingOptions.CASE_INSENSITIVE));
-			}
-		}
-		
-		if (options.contains(ParsingOptions.REMOVE_DASH_PREFIX)) {
-			if (options.contains(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH)) {
-				throw new InvalidArgumentsException(message.apply(ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_SENSITIVE_SINGLE_DASH));
-			}
-			
-			if (options.contains(ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH)) {
-				throw new InvalidArgumentsException(message.apply(ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH));
-			}
-			
-			if (options.contains(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH)) {
-				throw new InvalidArgumentsException(message.apply(ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH));
-			}
-			
-			if (options.contains(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH)) {
-				throw new InvalidArgumentsException(message.apply(ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH));
-			}
-		}
-	}
-	
-	private ArrayList<ParsingOptions> getOptions() {
-		if (!options.contains(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH) && !options.contains(ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH)) {
-			options.add(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH);
-		}
-		
-		if (!options.contains(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH) && !options.contains(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH)) {
-			options.add(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH);
-		}
-		
-		if (!options.contains(ParsingOptions.LEAVE_DASH_PREFIX) && !options.contains(ParsingOptions.REMOVE_DASH_PREFIX)) {
-			options.add(ParsingOptions.LEAVE_DASH_PREFIX);
-		}
-		
-		if (options.contains(ParsingOptions.REMOVE_DASH_PREFIX)) {
-			options.remove(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH);
-			options.remove(ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH);
-			options.remove(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH);
-			options.remove(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH);
-			
-			if (!options.contains(ParsingOptions.CASE_INSENSITIVE) && !options.contains(ParsingOptions.CASE_SENSITIVE)) {
-				options.add(ParsingOptions.CASE_INSENSITIVE);
-			}
-		}
-		
-		return options;
-	}
-	
-	private Stream<Argument> stream(String key) {
-		Predicate<Argument> predicate = (argument) -> {
-			if (argument.getKey().startsWith("-") && !argument.getKey().startsWith("--")) {
-				return getOptions().contains(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH) ? argument.getKey().equals(key) : argument.getKey().equalsIgnoreCase(key);
-			} else if (argument.getKey().startsWith("--")) {
-				return getOptions().contains(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH) ? argument.getKey().equals(key) : argument.getKey().equalsIgnoreCase(key);
-			}
-			
-			return getOptions().contains(ParsingOptions.CASE_SENSITIVE) ? argument.getKey().equals(key) : argument.getKey().equalsIgnoreCase(key);
-		};
-		
-		return set.stream().filter(predicate);
-	}
-	
 	@Override
 	public Iterator<Argument> iterator() {
-		return set.iterator();
+		return Arrays.asList(arguments).iterator();
 	}
 
 	@Override
@@ -256,17 +271,30 @@ public final class Arguments implements Iterable<Argument> {
 
 		Arguments arguments = (Arguments) o;
 
-		if (!Objects.equals(set, arguments.set)) return false;
-		return Objects.equals(options, arguments.options);
+		if (!Arrays.equals(this.arguments, arguments.arguments)) return false;
+		if (!Objects.equals(subcommands, arguments.subcommands)) return false;
+		return Objects.equals(profile, arguments.profile);
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + set.hashCode();
-		result = prime * result + options.hashCode();
+		result = prime * result + setHashCode();
+		result = prime * result + profile.hashCode();
+		result = prime * result + subcommands.hashCode();
 		return result;
 	}
 
+	/**
+	 * The sum of the hash codes of the arguments, as the hash code of a {@link Set} is.
+	 */
+	private int setHashCode() {
+		int hash = 0;
+		for (Argument argument : arguments) {
+			hash += argument.hashCode();
+		}
+		return hash;
+	}
+
 }
@@ -0,0 +1,365 @@
+package org.silentsoft.arguments.parser;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Accumulates tokens into {@link Arguments}. This is the parsing loop which is shared by
+ * {@link ArgumentsParser#parse()} and {@link IncrementalArgumentsParser}.<p>
+ * A token is either {@link #accept(CharSequence) accepted}, which throws at the first offending token
+ * and leaves the builder as it was before the token, or {@link #offer(CharSequence) offered},
+ * which records the error of an offending token and goes on, so that every offending token is reported without an exception.
+ */
+final class ArgumentsBuilder {
+
+	private final ParsingProfile profile;
+
+	private final ArgumentsIndex index;
+
+	private final List<Argument> arguments;
+
+	private final ArgumentScanner scanner;
+
+	private final List<ArgumentsSource> sources;
+
+	private final ArgumentsListener listener;
+
+	/**
+	 * The pool of the keys and the values, or <code>null</code> if they are not pooled.
+	 */
+	private final KeyPool pool;
+
+	/**
+	 * The tokens which are sliced into the values of {@link SlicedArgument}, or <code>null</code> to copy the values into lists.
+	 * If the strings are pooled, a value is replaced with its pooled string and any other token is dropped,
+	 * so that the arguments do not keep the original tokens alive.
+	 */
+	private final String[] argv;
+
+	/**
+	 * The index of the first token in the whole command line, which is not zero after a subcommand.
+	 */
+	private final int offset;
+
+	private Argument last;
+
+	private int tokens;
+
+	/**
+	 * The number of tokens that have been given, before the argument files are expanded.
+	 */
+	private int position;
+
+	/**
+	 * Whether the values are ignored, since the key before them has been rejected.
+	 */
+	private boolean skipping;
+
+	private List<ParseError> errors = Collections.emptyList();
+
+	private List<ParseError> undeclared = Collections.emptyList();
+
+	/**
+	 * @param pool <code>null</code> not to pool the keys and the values
+	 */
+	ArgumentsBuilder(ParsingProfile profile, List<ArgumentsSource> sources, ArgumentsListener listener, KeyPool pool) {
+		this(profile, sources, listener, pool, null, 0);
+	}
+
+	/**
+	 * @param pool <code>null</code> not to pool the keys and the values
+	 * @param argv the tokens which will be {@link #offer(CharSequence) offered} in order, and are owned by the builder.
+	 *             If the strings are pooled, each token is replaced with its pooled value or dropped once it has been offered.
+	 * @param offset the index of the first token in the whole command line
+	 */
+	ArgumentsBuilder(ParsingProfile profile, List<ArgumentsSource> sources, ArgumentsListener listener, KeyPool pool, String[] argv, int offset) {
+		this.profile = profile;
+		this.sources = sources;
+		this.listener = listener;
+		this.pool = pool;
+		this.argv = argv;
+		this.offset = offset;
+		this.index = new ArgumentsIndex(profile);
+		this.arguments = new ArrayList<Argument>();
+		this.scanner = new ArgumentScanner();
+	}
+
+	/**
+	 * @throws InvalidArgumentsException if the token is not valid
+	 */
+	void accept(CharSequence token) throws InvalidArgumentsException {
+		ParseError error = accept(token, false);
+		if (error != null) {
+			throw error.toException();
+		}
+	}
+
+	/**
+	 * Accepts the token, or records its error to {@link #errors()}.
+	 * The values after a rejected token are ignored until the next key, so that a single mistake is reported once.
+	 */
+	void offer(CharSequence token) {
+		accept(token, true);
+	}
+
+	/**
+	 * @param collect whether to record the error of the token instead of returning it
+	 * @return the error of the token, or <code>null</code> if the token has been accepted or its error has been recorded.
+	 */
+	private ParseError accept(CharSequence token, boolean collect) {
+		int index = offset + position++;
+		int i = index - offset;
+		int argvIndex = argv != null && i < argv.length && argv[i] == token ? i : -1;
+		ParseError error;
+		if (profile.expandsArgumentFiles() && token.length() > 0 && token.charAt(0) == '@') {
+			if (token.length() > 1 && token.charAt(1) == '@') {
+				error = add(token.subSequence(1, token.length()), index, -1);
+			} else {
+				error = expand(token, index, collect);
+			}
+			release(argvIndex);
+		} else {
+			error = add(token, index, argvIndex);
+		}
+		return error != null ? reject(error, collect) : null;
+	}
+
+	/**
+	 * The tokens in an argument file are not expanded again, and have the index of the <code>@path</code> token.<p>
+	 * An offered file is added as it is read. An accepted file is read twice, to check every token before any of them is added,
+	 * so that a file which cannot be read or has an offending token leaves the builder as it was without keeping the whole file in memory.
+	 */
+	private ParseError expand(CharSequence token, int index, boolean collect) {
+		String path = token.subSequence(1, token.length()).toString();
+		try {
+			if (collect) {
+				ArgumentFileReader.read(Paths.get(path), fileToken -> {
+					ParseError error = add(fileToken, index, -1);
+					if (error != null) {
+						reject(error, true);
+					}
+				});
+				return null;
+			}
+
+			FileCheck check = new FileCheck(index);
+			ArgumentFileReader.read(Paths.get(path), check);
+			if (check.error != null) {
+				return check.error;
+			}
+			// the file is checked already, so a token fails here only if the file has changed in the meantime
+			ParseError[] failure = new ParseError[1];
+			ArgumentFileReader.read(Paths.get(path), fileToken -> {
+				if (failure[0] == null) {
+					failure[0] = add(fileToken, index, -1);
+				}
+			});
+			return failure[0];
+		} catch (IOException | InvalidPathException e) {
+			return new ParseError(index, token.toString(), ErrorCode.UNREADABLE_ARGUMENT_FILE, String.format("The argument file '%s' cannot be read.", path), e);
+		} catch (InvalidArgumentsException e) {
+			return new ParseError(index, token.toString(), e.getErrorCode(), e.getMessage());
+		}
+	}
+
+	/**
+	 * Finds the first offending token of an argument file as {@link #add(CharSequence, int, int)} would, without adding any of the tokens.
+	 */
+	private final class FileCheck implements CommandLineTokenizer.TokenConsumer {
+
+		private final int position;
+
+		private boolean keyed = last != null;
+
+		/**
+		 * The error of the first offending token, or <code>null</code> if every token so far can be added.
+		 */
+		private ParseError error;
+
+		private FileCheck(int position) {
+			this.position = position;
+		}
+
+		@Override
+		public void accept(CharSequence token) {
+			if (error != null) {
+				return;
+			}
+			if (scanner.scan(token)) {
+				if (scanner.isMissingKey()) {
+					error = missingKey(token, position);
+				} else if (profile.expandAbbreviation(scanner.key()) == null) {
+					error = ambiguousKey(token, position, scanner.key());
+				}
+				keyed = true;
+			} else if (!keyed) {
+				error = valueWithoutKey(token, position);
+			}
+		}
+
+	}
+
+	private ParseError reject(ParseError error, boolean collect) {
+		if (!collect) {
+			return error;
+		}
+		if (errors.isEmpty()) {
+			errors = new ArrayList<ParseError>(1);
+		}
+		errors.add(error);
+		skipping = true;
+		return null;
+	}
+
+	/**
+	 * @param argvIndex the index of the token in the {@link #argv}, or <code>-1</code> if the token is not one of them
+	 * @return the error of the token, or <code>null</code> if the token has been added.
+	 */
+	private ParseError add(CharSequence token, int position, int argvIndex) {
+		if (scanner.scan(token)) {
+			if (scanner.isMissingKey()) {
+				return missingKey(token, position);
+			}
+
+			String key = scanner.key();
+			String expandedKey = profile.expandAbbreviation(key);
+			if (expandedKey == null) {
+				return ambiguousKey(token, position, key);
+			}
+
+			String normalizedKey = internKey(profile.normalize(expandedKey));
+			Argument argument = argv != null ? new SlicedArgument(normalizedKey, argv) : new Argument(normalizedKey);
+			Argument existing = index.putIfAbsent(argument);
+			if (existing == null) {
+				arguments.add(argument);
+				if (profile.rejectsUndeclaredKeys()) {
+					checkDeclared(argument.getKey(), token, position);
+				}
+			} else {
+				argument = existing;
+			}
+
+			if (scanner.hasValue()) {
+				argument.add(internValue(scanner.value()));
+			}
+			release(argvIndex);
+			last = argument;
+			skipping = false;
+		} else if (skipping) {
+			release(argvIndex);
+			return null;
+		} else {
+			if (last == null) {
+				return valueWithoutKey(token, position);
+			}
+
+			if (argvIndex >= 0) {
+				if (pool != null) {
+					argv[argvIndex] = pool.internValue(argv[argvIndex]);
+				}
+				((SlicedArgument) last).add(argvIndex);
+			} else {
+				last.add(internValue(token.toString()));
+			}
+		}
+		tokens++;
+		return null;
+	}
+
+	private static ParseError missingKey(CharSequence token, int position) {
+		return new ParseError(position, token.toString(), ErrorCode.MISSING_KEY, "The argument key is missing.");
+	}
+
+	private ParseError ambiguousKey(CharSequence token, int position, String key) {
+		return new ParseError(position, token.toString(), ErrorCode.AMBIGUOUS_KEY, String.format("The argument '%s' is ambiguous. Possible arguments are %s.", key, String.join(", ", profile.abbreviated(key))));
+	}
+
+	private static ParseError valueWithoutKey(CharSequence token, int position) {
+		return new ParseError(position, token.toString(), ErrorCode.VALUE_WITHOUT_KEY, "The first argument must be starts with '-' or '--'.");
+	}
+
+	private String internKey(String key) {
+		return pool != null ? pool.internKey(key) : key;
+	}
+
+	private String internValue(String value) {
+		return pool != null ? pool.internValue(value) : value;
+	}
+
+	/**
+	 * Drops a token which is not a value from the {@link #argv} if the strings are pooled, e.g. <code>--key=value</code>,
+	 * since the sliced arguments would keep it alive for nothing.
+	 *
+	 * @param argvIndex the index of the token in the {@link #argv}, or <code>-1</code> if the token is not one of them
+	 */
+	private void release(int argvIndex) {
+		if (pool != null && argvIndex >= 0) {
+			argv[argvIndex] = null;
+		}
+	}
+
+	/**
+	 * Records the key to {@link #undeclared()} if it is not declared, along with the most similar declared keys.
+	 */
+	private void checkDeclared(String key, CharSequence token, int position) {
+		if (profile.isDeclared(key) || profile.isHelpKey(key)) {
+			return;
+		}
+
+		List<String> suggestions = profile.suggest(key, 3);
+		String message = suggestions.isEmpty()
+				? String.format("The argument '%s' is not declared.", key)
+				: String.format("The argument '%s' is not declared. Did you mean %s?", key, String.join(" or ", suggestions));
+		if (undeclared.isEmpty()) {
+			undeclared = new ArrayList<ParseError>(1);
+		}
+		undeclared.add(new ParseError(position, token.toString(), ErrorCode.UNDECLARED_KEY, message));
+	}
+
+	/**
+	 * @return the errors of the offending tokens that have been {@link #offer(CharSequence) offered}.
+	 */
+	List<ParseError> errors() {
+		return errors;
+	}
+
+	/**
+	 * The keys are checked only with {@link ParsingOptions#REJECT_UNDECLARED_KEYS}.
+	 * They are reported after parsing, since the helper takes precedence over them.
+	 *
+	 * @return the errors of the keys which are not declared by the profile.
+	 */
+	List<ParseError> undeclared() {
+		return undeclared;
+	}
+
+	ParsingProfile profile() {
+		return profile;
+	}
+
+	/**
+	 * @return the number of tokens that have been added, after the argument files are expanded.
+	 */
+	int tokens() {
+		return tokens;
+	}
+
+	/**
+	 * The builder cannot be used after this method.
+	 */
+	Arguments build() {
+		return build(Collections.<String>emptyList());
+	}
+
+	/**
+	 * @param subcommands the path of the subcommands which selected the parser of the tokens
+	 */
+	Arguments build(List<String> subcommands) {
+		return new Arguments(profile, index, arguments, sources, listener, subcommands);
+	}
+
+}
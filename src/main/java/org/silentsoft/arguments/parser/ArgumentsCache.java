@@ -0,0 +1,153 @@
+package org.silentsoft.arguments.parser;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of parsed {@link Arguments} which evicts the least recently used entry.<p>
+ * An entry is keyed by the contents of the <code>args</code>, the {@link ParsingProfile}, the sources, the listener and the subcommands,
+ * so parsers that share a cache get the same instance for the same command line.
+ * The sources are compared by {@link Object#equals(Object)}, which the built-in sources implement by their arguments,
+ * whereas a lambda source must be the same instance to hit.
+ * The helper and the validator of a parser are still invoked on a cache hit.
+ * <pre>
+ * private static final ArgumentsCache CACHE = new ArgumentsCache(512);
+ *
+ * public Arguments parseArguments(String[] args) throws InvalidArgumentsException {
+ *     return Arguments.parser(args).cache(CACHE).validate(validator).parse();
+ * }
+ * </pre>
+ * A cache is thread-safe. Command lines with {@link ParsingOptions#EXPAND_ARGUMENT_FILES} are never cached,
+ * since the argument files may have changed.
+ *
+ * @see ArgumentsParser#cache(ArgumentsCache)
+ */
+public final class ArgumentsCache {
+
+	private final int maximumSize;
+
+	private final LinkedHashMap<Key, Arguments> map;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long evictionCount;
+
+	/**
+	 * @param maximumSize the maximum number of command lines to keep
+	 * @throws IllegalArgumentException if the <code>maximumSize</code> is not positive
+	 */
+	public ArgumentsCache(int maximumSize) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException(String.format("The maximum size must be positive but was %d.", maximumSize));
+		}
+
+		this.maximumSize = maximumSize;
+		this.map = new LinkedHashMap<Key, Arguments>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Arguments> eldest) {
+				if (size() > ArgumentsCache.this.maximumSize) {
+					evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	public synchronized int size() {
+		return map.size();
+	}
+
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Removes all entries. The counters are kept.
+	 */
+	public synchronized void clear() {
+		map.clear();
+	}
+
+	/**
+	 * @return the cached arguments, or <code>null</code> on a miss.
+	 */
+	synchronized Arguments get(String[] args, ParsingProfile profile, List<ArgumentsSource> sources, ArgumentsListener listener, List<String> subcommands) {
+		Arguments arguments = map.get(new Key(args, profile, sources, listener, subcommands));
+		if (arguments == null) {
+			missCount++;
+		} else {
+			hitCount++;
+		}
+		return arguments;
+	}
+
+	/**
+	 * @param args copied, so the caller may change it afterwards
+	 */
+	synchronized void put(String[] args, ParsingProfile profile, List<ArgumentsSource> sources, ArgumentsListener listener, List<String> subcommands, Arguments arguments) {
+		map.put(new Key(args.clone(), profile, sources, listener, subcommands), arguments);
+	}
+
+	private static final class Key {
+
+		private final String[] args;
+
+		private final ParsingProfile profile;
+
+		private final List<ArgumentsSource> sources;
+
+		/**
+		 * The arguments report their lookups to this listener.
+		 */
+		private final ArgumentsListener listener;
+
+		private final List<String> subcommands;
+
+		private final int hash;
+
+		Key(String[] args, ParsingProfile profile, List<ArgumentsSource> sources, ArgumentsListener listener, List<String> subcommands) {
+			this.args = args;
+			this.profile = profile;
+			this.sources = sources;
+			this.listener = listener;
+			this.subcommands = subcommands;
+			this.hash = 31 * (31 * (31 * (31 * Arrays.hashCode(args) + profile.hashCode()) + sources.hashCode()) + listener.hashCode()) + subcommands.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) obj;
+			return hash == key.hash && Arrays.equals(args, key.args) && profile.equals(key.profile) && sources.equals(key.sources) && listener.equals(key.listener) && subcommands.equals(key.subcommands);
+		}
+
+	}
+
+}
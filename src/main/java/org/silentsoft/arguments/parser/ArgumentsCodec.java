@@ -0,0 +1,397 @@
+package org.silentsoft.arguments.parser;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Encodes {@link Arguments} into a compact binary form, and reads them back without parsing the command line again,
+ * e.g. to keep parsed invocations in a disk queue and to hand them over to worker processes.
+ * <pre>
+ * ByteBuffer buffer = ByteBuffer.allocate(ArgumentsCodec.sizeOf(arguments));
+ * ArgumentsCodec.write(arguments, buffer);
+ * buffer.flip();
+ *
+ * Arguments copy = ArgumentsCodec.read(buffer); // equals to the arguments
+ * </pre>
+ * The keys, the values, the resolved parsing options, the declared keys and the subcommands are encoded.
+ * The sources and the listener are not, so the arguments which have been read look up the command line only, and report to no listener.<p>
+ * The layout of version 1 is as follows, where every int is big-endian and every string is an int of its length in bytes followed by its UTF-8 bytes.
+ * <pre>
+ * int     magic, 0x41524753
+ * byte    version, 1
+ * int     the number of the parsing options, followed by the name of each option
+ * int     the number of the declared keys, followed by each key
+ * int     the number of the subcommands, followed by each subcommand
+ * int     the number of the arguments, followed by each argument:
+ *         the key, an int of {@link Argument#hashCode()}, and an int of the number of the values followed by each value
+ * </pre>
+ */
+public final class ArgumentsCodec {
+
+	private static final int MAGIC = 0x41524753;
+
+	private static final byte VERSION = 1;
+
+	/**
+	 * The number of bytes, or of strings, which are allocated before they have been read from a {@link DataInput}.
+	 */
+	private static final int CHUNK = 8192;
+
+	private ArgumentsCodec() { }
+
+	/**
+	 * @param arguments
+	 * @return the number of bytes that {@link #write(Arguments, ByteBuffer)} writes.
+	 */
+	public static int sizeOf(Arguments arguments) {
+		int[] size = new int[1];
+		encode(arguments, new Sink<RuntimeException>() {
+			@Override
+			public void writeByte(int value) {
+				size[0] += 1;
+			}
+
+			@Override
+			public void writeInt(int value) {
+				size[0] += 4;
+			}
+
+			@Override
+			public void writeString(String value) {
+				size[0] += 4 + utf8Length(value);
+			}
+		});
+		return size[0];
+	}
+
+	/**
+	 * @param arguments
+	 * @param out
+	 * @throws IOException
+	 */
+	public static void write(Arguments arguments, DataOutput out) throws IOException {
+		encode(arguments, new Sink<IOException>() {
+			@Override
+			public void writeByte(int value) throws IOException {
+				out.writeByte(value);
+			}
+
+			@Override
+			public void writeInt(int value) throws IOException {
+				out.writeInt(value);
+			}
+
+			@Override
+			public void writeString(String value) throws IOException {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+		});
+	}
+
+	/**
+	 * Writes from the position of the buffer, and then advances the position. The byte order of the buffer is ignored.
+	 *
+	 * @param arguments
+	 * @param buffer
+	 * @throws java.nio.BufferOverflowException if the buffer has less than {@link #sizeOf(Arguments)} bytes remaining
+	 */
+	public static void write(Arguments arguments, ByteBuffer buffer) {
+		ByteBuffer view = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		encode(arguments, new Sink<RuntimeException>() {
+			@Override
+			public void writeByte(int value) {
+				view.put((byte) value);
+			}
+
+			@Override
+			public void writeInt(int value) {
+				view.putInt(value);
+			}
+
+			@Override
+			public void writeString(String value) {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				view.putInt(bytes.length);
+				view.put(bytes);
+			}
+		});
+		position(buffer, view.position());
+	}
+
+	private static <E extends Exception> void encode(Arguments arguments, Sink<E> sink) throws E {
+		ParsingProfile profile = arguments.profile();
+		sink.writeInt(MAGIC);
+		sink.writeByte(VERSION);
+
+		sink.writeInt(profile.getOptions().size());
+		for (ParsingOptions option : profile.getOptions()) {
+			sink.writeString(option.name());
+		}
+		sink.writeInt(profile.getDeclaredKeys().size());
+		for (String key : profile.getDeclaredKeys()) {
+			sink.writeString(key);
+		}
+		sink.writeInt(arguments.getSubcommands().size());
+		for (String subcommand : arguments.getSubcommands()) {
+			sink.writeString(subcommand);
+		}
+
+		sink.writeInt(arguments.size());
+		for (Argument argument : arguments) {
+			sink.writeString(argument.getKey());
+			sink.writeInt(argument.hashCode());
+			int size = argument.valueCount();
+			sink.writeInt(size);
+			for (int i = 0; i < size; i++) {
+				sink.writeString(argument.value(i));
+			}
+		}
+	}
+
+	/**
+	 * Reads and decodes the arguments at once. The input has no length to check the counts against,
+	 * so the arrays are grown as their elements are read rather than allocated by the counts.
+	 *
+	 * @param in
+	 * @return
+	 * @throws java.io.EOFException if the input ends before the arguments begin
+	 * @throws IOException
+	 * @throws InvalidArgumentsException if the input is not encoded arguments, is truncated or corrupted, or has been encoded by an unsupported version
+	 */
+	public static Arguments read(DataInput in) throws IOException, InvalidArgumentsException {
+		int magic = in.readInt();
+		try {
+			readHeader(magic, in.readByte());
+
+			List<String> options = readStrings(in);
+			List<String> declaredKeys = readStrings(in);
+			List<String> subcommands = readStrings(in);
+			ParsingProfile profile = profile(options.toArray(new String[0]), declaredKeys.toArray(new String[0]));
+
+			ArgumentsIndex index = new ArgumentsIndex(profile);
+			List<Argument> list = new ArrayList<Argument>();
+			for (int i = 0, size = count(in.readInt()); i < size; i++) {
+				String key = readString(in);
+				int hash = in.readInt();
+				Argument argument = new Argument(key, readStrings(in));
+				if (argument.hashCode() != hash) {
+					throw malformed(String.format("The argument '%s' is corrupted.", key));
+				}
+				add(index, list, argument);
+			}
+			return new Arguments(profile, index, list, Collections.<ArgumentsSource>emptyList(), ArgumentsListener.NOOP, subcommands(subcommands.toArray(new String[0])));
+		} catch (EOFException e) {
+			throw malformed("The encoded arguments are truncated.");
+		}
+	}
+
+	/**
+	 * Reads from the position of the buffer, and then advances the position past the arguments. The byte order of the buffer is ignored.<p>
+	 * The keys are decoded at once, but the values are left in the buffer until they are asked for, so the content of the buffer must not change
+	 * as long as the arguments are in use. A buffer which is mapped from a file is read without copying the values that are never asked for.
+	 *
+	 * @param buffer
+	 * @return
+	 * @throws InvalidArgumentsException if the buffer does not have encoded arguments, or they have been encoded by an unsupported version
+	 */
+	public static Arguments read(ByteBuffer buffer) throws InvalidArgumentsException {
+		ByteBuffer view = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		ByteBuffer shared = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		Arguments arguments;
+		try {
+			readHeader(view.getInt(), view.get());
+
+			String[] options = new String[count(view.getInt(), view)];
+			for (int i = 0; i < options.length; i++) {
+				options[i] = readString(view);
+			}
+			String[] declaredKeys = new String[count(view.getInt(), view)];
+			for (int i = 0; i < declaredKeys.length; i++) {
+				declaredKeys[i] = readString(view);
+			}
+			String[] subcommands = new String[count(view.getInt(), view)];
+			for (int i = 0; i < subcommands.length; i++) {
+				subcommands[i] = readString(view);
+			}
+			ParsingProfile profile = profile(options, declaredKeys);
+
+			ArgumentsIndex index = new ArgumentsIndex(profile);
+			List<Argument> list = new ArrayList<Argument>();
+			for (int i = 0, size = count(view.getInt(), view); i < size; i++) {
+				String key = readString(view);
+				int hash = view.getInt();
+				int values = count(view.getInt(), view);
+				int position = view.position();
+				// the values are skipped, but their lengths are checked so that decoding them later cannot fail
+				for (int j = 0; j < values; j++) {
+					int length = length(view.getInt(), view);
+					position(view, view.position() + length);
+				}
+				add(index, list, new EncodedArgument(key, shared, position, values, hash));
+			}
+			arguments = new Arguments(profile, index, list, Collections.<ArgumentsSource>emptyList(), ArgumentsListener.NOOP, subcommands(subcommands));
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw malformed("The encoded arguments are truncated or corrupted.");
+		}
+		position(buffer, view.position());
+		return arguments;
+	}
+
+	private static void readHeader(int magic, byte version) throws InvalidArgumentsException {
+		if (magic != MAGIC) {
+			throw malformed("The input is not encoded arguments.");
+		}
+		if (version != VERSION) {
+			throw malformed(String.format("The version %d of the encoded arguments is not supported.", version));
+		}
+	}
+
+	private static ParsingProfile profile(String[] options, String[] declaredKeys) throws InvalidArgumentsException {
+		ParsingOptions[] parsingOptions = new ParsingOptions[options.length];
+		for (int i = 0; i < options.length; i++) {
+			try {
+				parsingOptions[i] = ParsingOptions.valueOf(options[i]);
+			} catch (IllegalArgumentException e) {
+				throw malformed(String.format("The parsing option '%s' is not supported.", options[i]));
+			}
+		}
+		ParsingProfile profile = ParsingProfile.of(parsingOptions);
+		return declaredKeys.length == 0 ? profile : profile.declare(declaredKeys);
+	}
+
+	private static List<String> subcommands(String[] subcommands) {
+		return subcommands.length == 0 ? Collections.<String>emptyList() : Collections.unmodifiableList(Arrays.asList(subcommands));
+	}
+
+	private static void add(ArgumentsIndex index, List<Argument> list, Argument argument) throws InvalidArgumentsException {
+		if (index.putIfAbsent(argument) != null) {
+			throw malformed(String.format("The argument '%s' is duplicated.", argument.getKey()));
+		}
+		list.add(argument);
+	}
+
+	private static List<String> readStrings(DataInput in) throws IOException, InvalidArgumentsException {
+		int count = count(in.readInt());
+		List<String> strings = new ArrayList<String>(Math.min(count, CHUNK));
+		for (int i = 0; i < count; i++) {
+			strings.add(readString(in));
+		}
+		return strings;
+	}
+
+	private static String readString(DataInput in) throws IOException, InvalidArgumentsException {
+		int length = count(in.readInt());
+		byte[] bytes = new byte[Math.min(length, CHUNK)];
+		for (int read = 0; read < length; read = bytes.length) {
+			if (read == bytes.length) {
+				bytes = Arrays.copyOf(bytes, (int) Math.min(length, bytes.length * 2L));
+			}
+			in.readFully(bytes, read, bytes.length - read);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static String readString(ByteBuffer view) throws InvalidArgumentsException {
+		int length = length(view.getInt(), view);
+		String string = decode(view, view.position(), length);
+		position(view, view.position() + length);
+		return string;
+	}
+
+	/**
+	 * @param position the absolute position of the bytes, which is not changed
+	 */
+	static String decode(ByteBuffer buffer, int position, int length) {
+		if (buffer.hasArray()) {
+			return new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+		}
+
+		byte[] bytes = new byte[length];
+		ByteBuffer duplicate = buffer.duplicate();
+		position(duplicate, position);
+		duplicate.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static int count(int count) throws InvalidArgumentsException {
+		if (count < 0) {
+			throw malformed("The encoded arguments are corrupted.");
+		}
+		return count;
+	}
+
+	/**
+	 * Every element takes at least 4 bytes, so a count which is larger than that is corrupted rather than worth allocating.
+	 */
+	private static int count(int count, ByteBuffer view) throws InvalidArgumentsException {
+		if (count < 0 || count > view.remaining() / 4) {
+			throw malformed("The encoded arguments are truncated or corrupted.");
+		}
+		return count;
+	}
+
+	private static int length(int length, ByteBuffer view) throws InvalidArgumentsException {
+		if (length < 0 || length > view.remaining()) {
+			throw malformed("The encoded arguments are truncated or corrupted.");
+		}
+		return length;
+	}
+
+	/**
+	 * Calls {@link Buffer#position(int)}, which is not overridden by {@link ByteBuffer} until Java 9, so the class runs on Java 8 as well.
+	 */
+	private static void position(Buffer buffer, int position) {
+		buffer.position(position);
+	}
+
+	/**
+	 * Same as the length of <code>string.getBytes(StandardCharsets.UTF_8)</code>, in which an unpaired surrogate is replaced with '?'.
+	 */
+	private static int utf8Length(String string) {
+		int length = 0;
+		for (int i = 0, size = string.length(); i < size; i++) {
+			char c = string.charAt(i);
+			if (c < 0x80) {
+				length += 1;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(string.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else if (Character.isSurrogate(c)) {
+				length += 1;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	private static InvalidArgumentsException malformed(String message) {
+		return new InvalidArgumentsException(ErrorCode.MALFORMED_ENCODING, message);
+	}
+
+	private interface Sink<E extends Exception> {
+
+		void writeByte(int value) throws E;
+
+		void writeInt(int value) throws E;
+
+		void writeString(String value) throws E;
+
+	}
+
+}
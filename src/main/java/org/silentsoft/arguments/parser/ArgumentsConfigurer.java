@@ -0,0 +1,12 @@
+package org.silentsoft.arguments.parser;
+
+/**
+ * Configures the parser of a subcommand, which is created only when the subcommand is given.
+ *
+ * @see ArgumentsParser#subcommand(String, ArgumentsConfigurer)
+ */
+public interface ArgumentsConfigurer {
+
+	void configure(ArgumentsParser parser) throws InvalidArgumentsException;
+
+}
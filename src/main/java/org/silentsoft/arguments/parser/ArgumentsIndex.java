@@ -0,0 +1,104 @@
+package org.silentsoft.arguments.parser;
+
+/**
+ * Open addressing hash index over the keys of parsed arguments.<p>
+ * The hash and the equality of each key follow the case sensitivity rule of its dash prefix,
+ * so a lookup neither scans the arguments nor allocates a folded copy of the given key.
+ */
+final class ArgumentsIndex {
+
+	private Argument[] table;
+
+	private int mask;
+
+	private int size;
+
+	private final ParsingProfile profile;
+
+	ArgumentsIndex(ParsingProfile profile) {
+		this.profile = profile;
+		this.table = new Argument[16];
+		this.mask = table.length - 1;
+	}
+
+	Argument get(String key) {
+		if (key == null) {
+			return null;
+		}
+
+		boolean ignoreCase = profile.ignoreCase(key);
+		for (int i = hash(key, ignoreCase) & mask; ; i = (i + 1) & mask) {
+			Argument argument = table[i];
+			if (argument == null) {
+				return null;
+			}
+			if (matches(argument.getKey(), key, ignoreCase)) {
+				return argument;
+			}
+		}
+	}
+
+	/**
+	 * @param argument
+	 * @return the argument already indexed under a matching key, or <code>null</code> if the given argument has been added.
+	 */
+	Argument putIfAbsent(Argument argument) {
+		String key = argument.getKey();
+		boolean ignoreCase = profile.ignoreCase(key);
+		int i = hash(key, ignoreCase) & mask;
+		for (; table[i] != null; i = (i + 1) & mask) {
+			if (matches(table[i].getKey(), key, ignoreCase)) {
+				return table[i];
+			}
+		}
+
+		table[i] = argument;
+		if (++size * 2 > table.length) {
+			resize();
+		}
+		return null;
+	}
+
+	private void resize() {
+		Argument[] old = table;
+		table = new Argument[old.length * 2];
+		mask = table.length - 1;
+		for (Argument argument : old) {
+			if (argument != null) {
+				int i = hash(argument.getKey(), profile.ignoreCase(argument.getKey())) & mask;
+				while (table[i] != null) {
+					i = (i + 1) & mask;
+				}
+				table[i] = argument;
+			}
+		}
+	}
+
+	private static boolean matches(String candidate, String key, boolean ignoreCase) {
+		return ignoreCase ? candidate.equalsIgnoreCase(key) : candidate.equals(key);
+	}
+
+	private static int hash(String key, boolean ignoreCase) {
+		if (!ignoreCase) {
+			return spread(key.hashCode());
+		}
+
+		int hash = 0;
+		for (int i = 0, length = key.length(); i < length; i++) {
+			hash = 31 * hash + fold(key.charAt(i));
+		}
+		return spread(hash);
+	}
+
+	/**
+	 * Two characters are equal by {@link String#equalsIgnoreCase(String)} if and only if their folded characters are equal.
+	 */
+	static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+}
@@ -0,0 +1,74 @@
+package org.silentsoft.arguments.parser;
+
+/**
+ * Receives the measurements of parsing, for metrics or tracing. Every method does nothing by default.<p>
+ * A listener is invoked on the thread which parses or looks up, so it must be thread-safe if the parser or the arguments are shared.
+ * It should also return quickly, since it is invoked on every lookup.
+ *
+ * @see ArgumentsParser#listen(ArgumentsListener)
+ * @see ArgumentsMetrics
+ */
+public interface ArgumentsListener {
+
+	/**
+	 * A listener which does nothing. Parsers and arguments skip the measurements for it.
+	 */
+	ArgumentsListener NOOP = new ArgumentsListener() { };
+
+	/**
+	 * Invoked before the tokens are split and parsed. It is followed on the same thread by {@link #parsed(ParsingProfile, int, int, long)},
+	 * or by {@link #failed(ErrorCode)} if the tokens are not valid. An {@link IncrementalArgumentsParser} invokes it on its first token.
+	 */
+	default void parsing() {
+	}
+
+	/**
+	 * @param profile the profile which the tokens have been parsed with
+	 * @param tokens the number of tokens, including the tokens of argument files
+	 * @param arguments the number of parsed arguments
+	 * @param nanos the time spent to split and parse the tokens, which does not include the helper and the validator
+	 */
+	default void parsed(ParsingProfile profile, int tokens, int arguments, long nanos) {
+	}
+
+	/**
+	 * Invoked before the helper, and followed on the same thread by {@link #helped(long)} once the helper returns.
+	 */
+	default void helping() {
+	}
+
+	/**
+	 * @param nanos the time spent by the helper
+	 */
+	default void helped(long nanos) {
+	}
+
+	/**
+	 * Invoked before the validators, and followed on the same thread by {@link #validated(boolean, long)}.
+	 */
+	default void validating() {
+	}
+
+	/**
+	 * Invoked whether the validator has accepted the arguments or not.
+	 *
+	 * @param valid <code>false</code> if the validator has rejected the arguments or thrown an exception
+	 * @param nanos the time spent by the validator
+	 */
+	default void validated(boolean valid, long nanos) {
+	}
+
+	/**
+	 * @param key the key as it is given to {@link Arguments}
+	 * @param found
+	 */
+	default void lookedUp(String key, boolean found) {
+	}
+
+	/**
+	 * @param errorCode the reason of the failure, which is {@link ErrorCode#VALIDATION_FAILED} for any exception from the validator without an error code.
+	 */
+	default void failed(ErrorCode errorCode) {
+	}
+
+}
@@ -0,0 +1,141 @@
+package org.silentsoft.arguments.parser;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe {@link ArgumentsListener} which accumulates the measurements in memory, to be read and exported by the application.
+ * <pre>
+ * private static final ArgumentsMetrics METRICS = new ArgumentsMetrics();
+ *
+ * Arguments arguments = Arguments.parser(args).listen(METRICS).parse();
+ * registry.gauge("arguments.parse.nanos", METRICS.getParseNanos());
+ * </pre>
+ */
+public final class ArgumentsMetrics implements ArgumentsListener {
+
+	private final LongAdder parseCount = new LongAdder();
+
+	private final LongAdder parseNanos = new LongAdder();
+
+	private final LongAdder tokenCount = new LongAdder();
+
+	private final LongAdder argumentCount = new LongAdder();
+
+	private final LongAdder helpCount = new LongAdder();
+
+	private final LongAdder helpNanos = new LongAdder();
+
+	private final LongAdder validationCount = new LongAdder();
+
+	private final LongAdder validationNanos = new LongAdder();
+
+	private final ConcurrentMap<String, LongAdder> lookupCounts = new ConcurrentHashMap<String, LongAdder>();
+
+	private final ConcurrentMap<String, LongAdder> missCounts = new ConcurrentHashMap<String, LongAdder>();
+
+	private final ConcurrentMap<ErrorCode, LongAdder> failureCounts = new ConcurrentHashMap<ErrorCode, LongAdder>();
+
+	@Override
+	public void parsed(ParsingProfile profile, int tokens, int arguments, long nanos) {
+		parseCount.increment();
+		parseNanos.add(nanos);
+		tokenCount.add(tokens);
+		argumentCount.add(arguments);
+	}
+
+	@Override
+	public void helped(long nanos) {
+		helpCount.increment();
+		helpNanos.add(nanos);
+	}
+
+	@Override
+	public void validated(boolean valid, long nanos) {
+		validationCount.increment();
+		validationNanos.add(nanos);
+	}
+
+	@Override
+	public void lookedUp(String key, boolean found) {
+		lookupCounts.computeIfAbsent(key, k -> new LongAdder()).increment();
+		if (!found) {
+			missCounts.computeIfAbsent(key, k -> new LongAdder()).increment();
+		}
+	}
+
+	@Override
+	public void failed(ErrorCode errorCode) {
+		failureCounts.computeIfAbsent(errorCode, k -> new LongAdder()).increment();
+	}
+
+	/**
+	 * Counts the command lines whose tokens have been split into arguments, including the ones which have been rejected afterwards
+	 * for undeclared keys or by the validators. Those are counted by {@link #getFailureCounts()} as well.
+	 *
+	 * @return the number of command lines that have been tokenized
+	 */
+	public long getParseCount() {
+		return parseCount.sum();
+	}
+
+	public long getParseNanos() {
+		return parseNanos.sum();
+	}
+
+	public long getTokenCount() {
+		return tokenCount.sum();
+	}
+
+	public long getArgumentCount() {
+		return argumentCount.sum();
+	}
+
+	public long getHelpCount() {
+		return helpCount.sum();
+	}
+
+	public long getHelpNanos() {
+		return helpNanos.sum();
+	}
+
+	public long getValidationCount() {
+		return validationCount.sum();
+	}
+
+	public long getValidationNanos() {
+		return validationNanos.sum();
+	}
+
+	/**
+	 * @return a snapshot of the number of lookups by key
+	 */
+	public Map<String, Long> getLookupCounts() {
+		return snapshot(lookupCounts, new HashMap<String, Long>());
+	}
+
+	/**
+	 * @return a snapshot of the number of lookups that have not found the key, by key
+	 */
+	public Map<String, Long> getMissCounts() {
+		return snapshot(missCounts, new HashMap<String, Long>());
+	}
+
+	/**
+	 * @return a snapshot of the number of failures by reason
+	 */
+	public Map<ErrorCode, Long> getFailureCounts() {
+		return snapshot(failureCounts, new EnumMap<ErrorCode, Long>(ErrorCode.class));
+	}
+
+	private static <K> Map<K, Long> snapshot(Map<K, LongAdder> counters, Map<K, Long> snapshot) {
+		counters.forEach((key, counter) -> snapshot.put(key, counter.sum()));
+		return Collections.unmodifiableMap(snapshot);
+	}
+
+}
@@ -1,14 +1,41 @@
 package org.silentsoft.arguments.parser;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 public class ArgumentsParser {
 	
 	private String[] args;
 
 	private ParsingOptions[] parsingOptions;
 
+	private ParsingProfile parsingProfile;
+
 	private ArgumentsHelper argumentsHelper;
 
-	private ArgumentsValidator argumentsValidator;
+	private final ValidatorChain argumentsValidators = new ValidatorChain();
+
+	private List<ArgumentsSource> sources = Collections.emptyList();
+
+	private ArgumentsCache cache;
+
+	/**
+	 * The registered subcommands by their names, or <code>null</code> if there is none.
+	 */
+	private Map<String, Subcommand> subcommands;
+
+	private ArgumentsListener listener = ArgumentsListener.NOOP;
+
+	private KeyPool pool;
 
 	ArgumentsParser(String[] args) {
 		this.args = args;
@@ -19,6 +46,19 @@ public class ArgumentsParser {
 		this.parsingOptions = parsingOptions;
 	}
 
+	/**
+	 * Parses with the given profile instead of the parsing options given to {@link Arguments#parser(String[], ParsingOptions...)}.<p>
+	 * Since the profile has been validated and resolved in advance, this saves the setup cost of the parsing options for each parse.
+	 *
+	 * @param parsingProfile
+	 * @return
+	 * @see ParsingProfile#of(ParsingOptions...)
+	 */
+	public ArgumentsParser profile(ParsingProfile parsingProfile) {
+		this.parsingProfile = parsingProfile;
+		return this;
+	}
+
 	/**
 	 * If the <code>args</code> contains one of the following help commands then {@link ArgumentsHelper#help(Arguments)} will be invoked.<br>
 	 * <ul>
@@ -75,26 +115,411 @@ public class ArgumentsParser {
 	 * }
 	 * </pre>
 	 *
-	 * @param argumentsValidator
+	 * Each call adds a validator, and every validator is invoked even if another one has rejected the arguments.
+	 * If more than one validator rejects the arguments, the exception lists all of their messages,
+	 * and has their exceptions as {@link Throwable#getSuppressed() suppressed} exceptions.
+	 *
+	 * @param argumentsValidator ignored if <code>null</code>
 	 * @return
+	 * @see #validateConcurrently(Executor)
 	 */
 	public ArgumentsParser validate(ArgumentsValidator argumentsValidator) {
-		this.argumentsValidator = argumentsValidator;
+		if (argumentsValidator != null) {
+			argumentsValidators.add(argumentsValidator);
+		}
+		return this;
+	}
+
+	/**
+	 * Invokes the validators concurrently on the given executor, so that the validation takes about as long as the slowest validator.
+	 * This is worth it for validators which check files, disks or ports. The validators must not depend on each other.
+	 * <pre>
+	 * // Java 21 or later
+	 * private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+	 *
+	 * Arguments.parser(args).validate(inputFileValidator).validate(portValidator).validateConcurrently(EXECUTOR).parse();
+	 * </pre>
+	 *
+	 * @param executor <code>null</code> to invoke the validators one by one on the calling thread, which is the default
+	 * @return
+	 */
+	public ArgumentsParser validateConcurrently(Executor executor) {
+		argumentsValidators.executor(executor);
+		return this;
+	}
+
+	/**
+	 * Looks up the keys that are not in the command line from the given sources, in the given order.
+	 * A source is consulted only when a key is looked up and has not been found in the sources before it.<p>
+	 * The command line comes first, unless {@link ArgumentsSource#commandLine()} is placed among the given sources.
+	 * {@link Arguments#requiresHelp()}, {@link Arguments#size()} and the iteration of {@link Arguments} are about the command line only.
+	 * <pre>
+	 * Arguments.parser(args).sources(ArgumentsSource.environment("APP_"), ArgumentsSource.systemProperties("app.")).parse();
+	 * </pre>
+	 *
+	 * @param sources
+	 * @return
+	 * @see ArgumentsSource
+	 */
+	public ArgumentsParser sources(ArgumentsSource... sources) {
+		List<ArgumentsSource> list = new ArrayList<ArgumentsSource>();
+		if (sources != null) {
+			for (ArgumentsSource source : sources) {
+				if (source != null) {
+					list.add(source);
+				}
+			}
+		}
+		if (!list.isEmpty() && !list.contains(ArgumentsSources.COMMAND_LINE)) {
+			list.add(0, ArgumentsSources.COMMAND_LINE);
+		}
+		this.sources = list;
 		return this;
 	}
 
+	/**
+	 * Registers a subcommand, which is selected by the first token of the <code>args</code> as <code>git commit</code> is.
+	 * The rest of the tokens are parsed by the parser of the subcommand, with its own options, helper, validator and subcommands.
+	 * <pre>
+	 * Arguments arguments = Arguments.parser(args)
+	 *     .subcommand("commit", parser -&gt; parser.profile(COMMIT_PROFILE).validate(commitValidator))
+	 *     .subcommand("remote", parser -&gt; parser.subcommand("add", ...).subcommand("remove", ...))
+	 *     .parse();
+	 *
+	 * arguments.getSubcommands(); // [remote, add] for "remote add --name origin"
+	 * </pre>
+	 * The configurer is invoked only when the subcommand is given for the first time, so registering many subcommands costs little.
+	 * The parser of a subcommand starts with the listener, the pool and the cache of this parser, which the configurer may replace.
+	 * If the first token starts with '-', this parser parses all the tokens itself.
+	 * Subcommands are selected by {@link #parse()} only, not by {@link #parseCommandLine(CharSequence)} and {@link #incremental()}.
+	 *
+	 * @param name
+	 * @param configurer configures the parser of the subcommand, which is created without the <code>args</code>
+	 * @return
+	 * @see Arguments#getSubcommands()
+	 */
+	public ArgumentsParser subcommand(String name, ArgumentsConfigurer configurer) {
+		if (subcommands == null) {
+			subcommands = new HashMap<String, Subcommand>();
+		}
+		subcommands.put(name, new Subcommand(configurer));
+		return this;
+	}
+
+	/**
+	 * Reports the measurements of parsing and of the lookups on the parsed arguments to the given listener,
+	 * which is inherited by the parsers of the subcommands. Nothing is measured without a listener.
+	 *
+	 * @param listener
+	 * @return
+	 * @see ArgumentsMetrics
+	 */
+	public ArgumentsParser listen(ArgumentsListener listener) {
+		this.listener = listener != null ? listener : ArgumentsListener.NOOP;
+		return this;
+	}
+
+	/**
+	 * Shares the instances of the keys and the values with the other arguments which are parsed with the same pool,
+	 * which is inherited by the parsers of the subcommands.
+	 * This saves memory when many parsed arguments are kept, e.g. one for each queued job.
+	 *
+	 * @param pool <code>null</code> not to pool the keys and the values, which is the default
+	 * @return
+	 * @see KeyPool
+	 */
+	public ArgumentsParser pool(KeyPool pool) {
+		this.pool = pool;
+		return this;
+	}
+
+	/**
+	 * Reuses the arguments of the same command line from the given cache, instead of parsing it again.
+	 * The helper and the validator are invoked as usual, whether the arguments have been cached or not.
+	 *
+	 * @param cache
+	 * @return
+	 * @see ArgumentsCache
+	 */
+	public ArgumentsParser cache(ArgumentsCache cache) {
+		this.cache = cache;
+		return this;
+	}
+
+	/**
+	 * If {@link ParsingOptions#EXPAND_ARGUMENT_FILES} is given, a token <code>@path</code> is replaced with the tokens in the file,
+	 * which is decoded as UTF-8 and split as a POSIX shell does. A token <code>@@value</code> stands for <code>@value</code>.
+	 * The tokens in an argument file are not expanded again.
+	 *
+	 * @return
+	 * @throws InvalidArgumentsException
+	 * @see #tryParse()
+	 */
 	public Arguments parse() throws InvalidArgumentsException {
-		Arguments arguments = new Arguments(args, parsingOptions);
+		return tryParse().orElseThrow();
+	}
+
+	/**
+	 * Parses as {@link #parse()} does, but returns the errors instead of throwing an exception, which saves filling in a stack trace
+	 * for each invalid command line. Every offending token is reported with its index, and the values after it are ignored until the next key.
+	 * <pre>
+	 * ParseResult result = Arguments.parser(args).tryParse();
+	 * if (!result.isSuccess()) {
+	 *     for (ParseError error : result.getErrors()) {
+	 *         System.err.println(error.getIndex() + ": " + error.getText() + " " + error.getErrorCode());
+	 *     }
+	 * }
+	 * </pre>
+	 * An exception is still created if a validator throws one, or if an argument file cannot be read.
+	 * An unchecked exception from the helper or a validator is thrown as it is.
+	 *
+	 * @return
+	 */
+	public ParseResult tryParse() {
+		return tryParse(args != null ? args : new String[] {}, Collections.<String>emptyList(), null, 0);
+	}
+
+	/**
+	 * Parses each command line of the given stream in parallel on the {@link ForkJoinPool#commonPool() common pool}, instead of the <code>args</code>.
+	 *
+	 * @param commandLines
+	 * @return the results in the order of the command lines
+	 * @throws InvalidArgumentsException if the parsing options cannot be used together
+	 * @see #parseAll(Stream, ForkJoinPool)
+	 */
+	public List<ParseResult> parseAll(Stream<String[]> commandLines) throws InvalidArgumentsException {
+		return parseAll(commandLines, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Parses each command line of the given stream in parallel on the given pool, instead of the <code>args</code>,
+	 * as a manifest of jobs is replayed. The parsing options are resolved once for all the command lines,
+	 * and a command line which cannot be parsed or is rejected by the validators does not stop the others.
+	 * Each command line is parsed as {@link #tryParse()} does.
+	 * <pre>
+	 * try (Stream&lt;String&gt; lines = Files.lines(manifest)) {
+	 *     for (ParseResult result : Arguments.parser().validate(validator).parseAll(lines.map(line -&gt; line.split(" ")))) {
+	 *         if (!result.isSuccess()) {
+	 *             System.err.println(result.getErrors());
+	 *         }
+	 *     }
+	 * }
+	 * </pre>
+	 * The helper, the validators and the listener are invoked from the threads of the pool, so they must be thread safe.
+	 *
+	 * @param commandLines a <code>null</code> command line is parsed as an empty one
+	 * @param pool
+	 * @return the results in the order of the command lines
+	 * @throws InvalidArgumentsException if the parsing options cannot be used together
+	 */
+	public List<ParseResult> parseAll(Stream<String[]> commandLines, ForkJoinPool pool) throws InvalidArgumentsException {
+		ParsingProfile profile;
+		try {
+			profile = resolveProfile();
+		} catch (InvalidArgumentsException e) {
+			throw failed(e);
+		}
+
+		return pool.invoke(ForkJoinTask.adapt(() -> commandLines.parallel()
+				.map(args -> tryParse(args != null ? args : new String[] {}, Collections.<String>emptyList(), profile, 0))
+				.collect(Collectors.toList())));
+	}
+
+	/**
+	 * @param profile the profile which has been resolved in advance, or <code>null</code> to resolve it
+	 * @param offset the index of the first token of the <code>args</code> in the whole command line
+	 */
+	private ParseResult tryParse(String[] args, List<String> path, ParsingProfile profile, int offset) {
+		if (subcommands != null && args.length > 0 && !args[0].startsWith("-")) {
+			Subcommand subcommand = subcommands.get(args[0]);
+			if (subcommand == null) {
+				return failed(ParseResult.failure(new ParseError(offset, args[0], ErrorCode.UNKNOWN_SUBCOMMAND, String.format("The subcommand '%s' is not registered.", args[0]))));
+			}
+
+			ArgumentsParser parser;
+			try {
+				parser = subcommand.parser(listener, pool, cache);
+			} catch (InvalidArgumentsException e) {
+				return failed(ParseResult.failure(e));
+			}
+
+			List<String> subcommandPath = new ArrayList<String>(path);
+			subcommandPath.add(args[0]);
+			return parser.tryParse(Arrays.copyOfRange(args, 1, args.length), Collections.unmodifiableList(subcommandPath), null, offset + 1);
+		}
+
+		long start = 0L;
+		if (listener != ArgumentsListener.NOOP) {
+			listener.parsing();
+			start = System.nanoTime();
+		}
+		if (profile == null) {
+			try {
+				profile = resolveProfile();
+			} catch (InvalidArgumentsException e) {
+				return failed(ParseResult.failure(e));
+			}
+		}
+		boolean cacheable = cache != null && !profile.expandsArgumentFiles();
+
+		Arguments arguments = cacheable ? cache.get(args, profile, sources, listener, path) : null;
+		List<ParseError> undeclared = Collections.emptyList();
+		int tokens = args.length;
+		if (arguments == null) {
+			// the values are sliced from a copy, since the caller may reuse the args
+			String[] argv = args.clone();
+			ArgumentsBuilder builder = new ArgumentsBuilder(profile, sources, listener, pool, argv, offset);
+			for (String arg : argv) {
+				builder.offer(arg);
+			}
+			if (!builder.errors().isEmpty()) {
+				List<ParseError> errors = new ArrayList<ParseError>(builder.errors());
+				errors.addAll(builder.undeclared());
+				return failed(ParseResult.failure(errors));
+			}
+			tokens = builder.tokens();
+			arguments = builder.build(path);
+			undeclared = builder.undeclared();
+
+			// the arguments with undeclared keys are not cached, so that the cached arguments need no check.
+			if (cacheable && undeclared.isEmpty()) {
+				cache.put(args, profile, sources, listener, path, arguments);
+			}
+		}
+
+		if (listener != ArgumentsListener.NOOP) {
+			listener.parsed(profile, tokens, arguments.size(), System.nanoTime() - start);
+		}
+		return complete(arguments, undeclared);
+	}
+
+	/**
+	 * Parses a whole command line, such as one received over a socket, instead of the <code>args</code>.
+	 * The command line is split as {@link ParsingOptions#EXPAND_ARGUMENT_FILES argument files} are, that is, as a POSIX shell does.
+	 * <pre>
+	 * Arguments arguments = Arguments.parser().parseCommandLine("--name 'hello world' -count=3");
+	 * </pre>
+	 * Tokens without quotes and escapes are read in place, so the command line is neither split into a <code>String[]</code> nor copied as a whole.
+	 * The {@link #cache(ArgumentsCache) cache} is not used.
+	 *
+	 * @param commandLine a {@link String}, a {@link java.nio.CharBuffer} or any other character sequence, which must not change during the call
+	 * @return
+	 * @throws InvalidArgumentsException if a quote is not closed, or the tokens are not valid arguments
+	 */
+	public Arguments parseCommandLine(CharSequence commandLine) throws InvalidArgumentsException {
+		long start = 0L;
+		if (listener != ArgumentsListener.NOOP) {
+			listener.parsing();
+			start = System.nanoTime();
+		}
+		ArgumentsBuilder builder;
+		Arguments arguments;
+		try {
+			builder = new ArgumentsBuilder(resolveProfile(), sources, listener, pool);
+			new CommandLineTokenizer(builder::accept).tokenize(commandLine);
+			arguments = builder.build();
+		} catch (InvalidArgumentsException e) {
+			throw failed(e);
+		}
+
+		if (listener != ArgumentsListener.NOOP) {
+			listener.parsed(builder.profile(), builder.tokens(), arguments.size(), System.nanoTime() - start);
+		}
+		return complete(arguments, builder.undeclared()).orElseThrow();
+	}
+
+	/**
+	 * Creates a parser which accepts tokens one at a time instead of the <code>args</code>, with the configuration of this parser.
+	 * <p>
+	 * Usage:
+	 * <pre>
+	 * IncrementalArgumentsParser parser = Arguments.parser().validate(validator).incremental();
+	 * for (CharSequence token : tokens) {
+	 *     parser.accept(token);
+	 * }
+	 * Arguments arguments = parser.complete();
+	 * </pre>
+	 *
+	 * @return
+	 * @throws InvalidArgumentsException if the parsing options cannot be used together
+	 */
+	public IncrementalArgumentsParser incremental() throws InvalidArgumentsException {
+		try {
+			return new IncrementalArgumentsParser(this, new ArgumentsBuilder(resolveProfile(), sources, listener, pool), listener);
+		} catch (InvalidArgumentsException e) {
+			throw failed(e);
+		}
+	}
+
+	private ParsingProfile resolveProfile() throws InvalidArgumentsException {
+		return parsingProfile != null ? parsingProfile : ParsingProfile.of(parsingOptions);
+	}
+
+	/**
+	 * Invokes the helper, or reports the undeclared keys and then invokes the validators, on the parsed arguments.
+	 *
+	 * @param undeclared the errors of the keys which are not declared by the profile
+	 */
+	ParseResult complete(Arguments arguments, List<ParseError> undeclared) {
+		boolean listening = listener != ArgumentsListener.NOOP;
 		if (arguments.requiresHelp() && argumentsHelper != null) {
+			long start = 0L;
+			if (listening) {
+				listener.helping();
+				start = System.nanoTime();
+			}
 			argumentsHelper.help(arguments);
-		} else {
-			if (argumentsValidator != null) {
-				if (!argumentsValidator.isValid(arguments)) {
-					throw new InvalidArgumentsException();
-				}
+			if (listening) {
+				listener.helped(System.nanoTime() - start);
+			}
+			return ParseResult.success(arguments);
+		}
+
+		if (!undeclared.isEmpty()) {
+			return failed(ParseResult.failure(undeclared));
+		}
+		if (argumentsValidators.isEmpty()) {
+			return ParseResult.success(arguments);
+		}
+
+		long start = 0L;
+		if (listening) {
+			listener.validating();
+			start = System.nanoTime();
+		}
+		ParseResult result = null;
+		try {
+			result = argumentsValidators.validate(arguments);
+		} finally {
+			if (listening) {
+				listener.validated(result != null && result.isSuccess(), System.nanoTime() - start);
 			}
 		}
-		return arguments;
+		if (!result.isSuccess()) {
+			ErrorCode errorCode = result.getErrors().get(0).getErrorCode();
+			listener.failed(errorCode == ErrorCode.UNSPECIFIED ? ErrorCode.VALIDATION_FAILED : errorCode);
+		}
+		return result;
+	}
+
+	/**
+	 * Reports the failure to the listener.
+	 *
+	 * @return the given exception, to be thrown
+	 */
+	InvalidArgumentsException failed(InvalidArgumentsException e) {
+		listener.failed(e.getErrorCode());
+		return e;
+	}
+
+	/**
+	 * Reports the first error of the failure to the listener.
+	 *
+	 * @return the given result
+	 */
+	private ParseResult failed(ParseResult result) {
+		listener.failed(result.getErrors().get(0).getErrorCode());
+		return result;
 	}
 
 	/**
@@ -128,5 +553,37 @@ public class ArgumentsParser {
 	public static Arguments parse(String[] args, ArgumentsValidator validator) throws InvalidArgumentsException {
 		return Arguments.parser(args).validate(validator).parse();
 	}
-	
+
+	/**
+	 * A registered subcommand whose parser is configured on demand.
+	 */
+	private static final class Subcommand {
+
+		private final ArgumentsConfigurer configurer;
+
+		private ArgumentsParser parser;
+
+		Subcommand(ArgumentsConfigurer configurer) {
+			this.configurer = configurer;
+		}
+
+		/**
+		 * @param listener the listener of the parent parser, which the configurer may replace
+		 * @param pool the pool of the parent parser, which the configurer may replace
+		 * @param cache the cache of the parent parser, which the configurer may replace
+		 */
+		synchronized ArgumentsParser parser(ArgumentsListener listener, KeyPool pool, ArgumentsCache cache) throws InvalidArgumentsException {
+			if (parser == null) {
+				ArgumentsParser parser = new ArgumentsParser(null);
+				parser.listener = listener;
+				parser.pool = pool;
+				parser.cache = cache;
+				configurer.configure(parser);
+				this.parser = parser;
+			}
+			return parser;
+		}
+
+	}
+
 }
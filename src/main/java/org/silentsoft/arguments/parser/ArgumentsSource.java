@@ -0,0 +1,96 @@
+package org.silentsoft.arguments.parser;
+
+import java.nio.file.Path;
+
+/**
+ * A layer of configuration which is consulted when a key is not found in the layers above it.<p>
+ * Usage:
+ * <pre>
+ * Arguments arguments = Arguments.parser(args).sources(
+ *     ArgumentsSource.environment("APP_"),
+ *     ArgumentsSource.properties(Paths.get("application.properties"))
+ * ).parse();
+ *
+ * // --db-url, then APP_DB_URL, then db-url in application.properties
+ * String url = arguments.getValue("--db-url");
+ * </pre>
+ * A source is asked only for the keys that are looked up, so it never has to be copied as a whole.<p>
+ * An {@link ArgumentsCache} tells the sources of two parsers apart by {@link Object#equals(Object)}. The built-in sources are equal
+ * when they are created with the same arguments, but a lambda is equal only to itself, so keep such a source in a field instead of
+ * creating it for each parse.
+ *
+ * @see ArgumentsParser#sources(ArgumentsSource...)
+ */
+@FunctionalInterface
+public interface ArgumentsSource {
+
+	/**
+	 * @param key the key as it is looked up, with its dash prefix if any
+	 * @return the value, or <code>null</code> if this source does not have the key.
+	 */
+	String getValue(String key);
+
+	/**
+	 * The returned source only marks the position of the command line among the sources given to {@link ArgumentsParser#sources(ArgumentsSource...)},
+	 * and its {@link #getValue(String)} always returns <code>null</code>.
+	 *
+	 * @return the parsed command line, which is the first source unless it is placed otherwise.
+	 */
+	static ArgumentsSource commandLine() {
+		return ArgumentsSources.COMMAND_LINE;
+	}
+
+	/**
+	 * Same as <code>environment("")</code>.
+	 *
+	 * @return
+	 */
+	static ArgumentsSource environment() {
+		return environment("");
+	}
+
+	/**
+	 * Looks up the environment variable whose name is the prefix followed by the key without its dash prefix,
+	 * in upper case and with every character other than letters and digits replaced by <code>_</code>.
+	 * For example, <code>--db-url</code> is <code>APP_DB_URL</code> with the prefix <code>APP_</code>.
+	 *
+	 * @param prefix
+	 * @return
+	 */
+	static ArgumentsSource environment(String prefix) {
+		return new ArgumentsSources.EnvironmentSource(prefix, ArgumentsSources.ENVIRONMENT);
+	}
+
+	/**
+	 * Same as <code>systemProperties("")</code>.
+	 *
+	 * @return
+	 */
+	static ArgumentsSource systemProperties() {
+		return systemProperties("");
+	}
+
+	/**
+	 * Looks up the system property whose name is the prefix followed by the key without its dash prefix.
+	 * For example, <code>--db-url</code> is <code>app.db-url</code> with the prefix <code>app.</code>.
+	 *
+	 * @param prefix
+	 * @return
+	 */
+	static ArgumentsSource systemProperties(String prefix) {
+		return new ArgumentsSources.SystemPropertiesSource(prefix);
+	}
+
+	/**
+	 * Looks up the property whose name is the key without its dash prefix.<p>
+	 * The file is loaded when a key is looked up for the first time, and a file that does not exist has no properties.
+	 *
+	 * @param path a <code>.properties</code> file in ISO 8859-1 as {@link java.util.Properties#load(java.io.InputStream)} reads
+	 * @return
+	 * @throws java.io.UncheckedIOException on lookup if the file exists but cannot be read
+	 */
+	static ArgumentsSource properties(Path path) {
+		return new ArgumentsSources.PropertiesSource(path);
+	}
+
+}
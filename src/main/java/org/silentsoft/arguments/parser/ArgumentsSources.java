@@ -0,0 +1,176 @@
+package org.silentsoft.arguments.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * Implementations of {@link ArgumentsSource}.
+ */
+final class ArgumentsSources {
+
+	static final ArgumentsSource COMMAND_LINE = new CommandLineSource();
+
+	/**
+	 * Shared, so that two environment sources with the same prefix are equal.
+	 */
+	static final Function<String, String> ENVIRONMENT = System::getenv;
+
+	private ArgumentsSources() { }
+
+	static String environmentName(String prefix, String key) {
+		String name = ArgumentScanner.stripDashes(key);
+		StringBuilder builder = new StringBuilder(prefix.length() + name.length()).append(prefix);
+		for (int i = 0, length = name.length(); i < length; i++) {
+			char c = name.charAt(i);
+			if (c >= 'a' && c <= 'z') {
+				builder.append((char) (c - ('a' - 'A')));
+			} else if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+				builder.append(c);
+			} else {
+				builder.append('_');
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * A marker of the position of the command line among the sources, which {@link Arguments} resolves from its own index.
+	 * Looked up on its own, e.g. by a source which wraps it, it does not have any key.
+	 */
+	static final class CommandLineSource implements ArgumentsSource {
+
+		private CommandLineSource() { }
+
+		@Override
+		public String getValue(String key) {
+			return null;
+		}
+
+	}
+
+	/**
+	 * Equal to another environment source with the same prefix and the same variables, so that a parser which creates its sources
+	 * for each parse still hits its {@link ArgumentsCache}. The same holds for the other sources below.
+	 */
+	static final class EnvironmentSource implements ArgumentsSource {
+
+		private final String prefix;
+
+		private final Function<String, String> variables;
+
+		/**
+		 * @param variables the value of an environment variable by its name, e.g. <code>System::getenv</code>
+		 */
+		EnvironmentSource(String prefix, Function<String, String> variables) {
+			this.prefix = Objects.requireNonNull(prefix);
+			this.variables = variables;
+		}
+
+		@Override
+		public String getValue(String key) {
+			return variables.apply(environmentName(prefix, key));
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			EnvironmentSource source = (EnvironmentSource) o;
+
+			return prefix.equals(source.prefix) && variables.equals(source.variables);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * prefix.hashCode() + variables.hashCode();
+		}
+
+	}
+
+	static final class SystemPropertiesSource implements ArgumentsSource {
+
+		private final String prefix;
+
+		SystemPropertiesSource(String prefix) {
+			this.prefix = Objects.requireNonNull(prefix);
+		}
+
+		@Override
+		public String getValue(String key) {
+			return System.getProperty(prefix.concat(ArgumentScanner.stripDashes(key)));
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			return prefix.equals(((SystemPropertiesSource) o).prefix);
+		}
+
+		@Override
+		public int hashCode() {
+			return prefix.hashCode();
+		}
+
+	}
+
+	static final class PropertiesSource implements ArgumentsSource {
+
+		private final Path path;
+
+		private volatile Properties properties;
+
+		PropertiesSource(Path path) {
+			this.path = Objects.requireNonNull(path);
+		}
+
+		@Override
+		public String getValue(String key) {
+			return properties().getProperty(ArgumentScanner.stripDashes(key));
+		}
+
+		private Properties properties() {
+			Properties properties = this.properties;
+			if (properties == null) {
+				synchronized (this) {
+					properties = this.properties;
+					if (properties == null) {
+						properties = new Properties();
+						try (InputStream stream = Files.newInputStream(path)) {
+							properties.load(stream);
+						} catch (NoSuchFileException e) {
+						} catch (IOException e) {
+							throw new UncheckedIOException(String.format("The properties file '%s' cannot be read.", path), e);
+						}
+						this.properties = properties;
+					}
+				}
+			}
+			return properties;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			return path.equals(((PropertiesSource) o).path);
+		}
+
+		@Override
+		public int hashCode() {
+			return path.hashCode();
+		}
+
+	}
+
+}
@@ -0,0 +1,219 @@
+package org.silentsoft.arguments.parser;
+
+/**
+ * Splits characters into tokens as a POSIX shell does, one character at a time, so the input never has to be held as a whole.
+ * <ul>
+ * <li>Tokens are separated by whitespace.</li>
+ * <li>Characters between single quotes are taken literally.</li>
+ * <li>Characters between double quotes are taken literally, except that a backslash escapes <code>"</code>, <code>\</code>, <code>$</code>, <code>`</code> and a line break.</li>
+ * <li>Outside of quotes, a backslash escapes any following character.</li>
+ * <li>An escaped line break is removed, which continues the line.</li>
+ * <li>Quoted and unquoted parts without whitespace in between make a single token, so <code>--name="a b"</code> is <code>--name=a b</code>.</li>
+ * <li>A <code>#</code> at the beginning of a token starts a comment which ends at the line break.</li>
+ * </ul>
+ * The token given to the consumer is only valid during the call, as its characters are reused for the next token.
+ * {@link #tokenize(CharSequence)} gives the tokens without quotes and escapes as slices of the input instead.
+ */
+final class CommandLineTokenizer {
+
+	interface TokenConsumer {
+
+		void accept(CharSequence token) throws InvalidArgumentsException;
+
+	}
+
+	private final TokenConsumer consumer;
+
+	private final StringBuilder token;
+
+	private boolean inToken;
+
+	private char quote;
+
+	private boolean escape;
+
+	/**
+	 * Whether an escaped <code>\r</code> is pending, which is a line continuation if <code>\n</code> follows it.
+	 */
+	private boolean escapedReturn;
+
+	private boolean comment;
+
+	CommandLineTokenizer(TokenConsumer consumer) {
+		this.consumer = consumer;
+		this.token = new StringBuilder();
+	}
+
+	void feed(CharSequence chars) throws InvalidArgumentsException {
+		for (int i = 0, length = chars.length(); i < length; i++) {
+			feed(chars.charAt(i));
+		}
+	}
+
+	void feed(char c) throws InvalidArgumentsException {
+		if (comment) {
+			if (c == '\n' || c == '\r') {
+				comment = false;
+			}
+		} else if (escapedReturn) {
+			escapedReturn = false;
+			if (c != '\n') {
+				escaped('\r');
+				feed(c);
+			}
+		} else if (escape) {
+			escape = false;
+			if (c == '\n') {
+				return;
+			}
+			if (c == '\r') {
+				// a line continuation of a file with CRLF line endings, unless the next character is not '\n'
+				escapedReturn = true;
+				return;
+			}
+			escaped(c);
+		} else if (quote != 0) {
+			if (c == quote) {
+				quote = 0;
+			} else if (c == '\\' && quote == '"') {
+				escape = true;
+			} else {
+				token.append(c);
+			}
+		} else if (Character.isWhitespace(c)) {
+			if (inToken) {
+				emit();
+			}
+		} else if (c == '#' && !inToken) {
+			comment = true;
+		} else {
+			inToken = true;
+			if (c == '\'' || c == '"') {
+				quote = c;
+			} else if (c == '\\') {
+				escape = true;
+			} else {
+				token.append(c);
+			}
+		}
+	}
+
+	private void escaped(char c) {
+		if (quote == '"' && c != '"' && c != '\\' && c != '$' && c != '`') {
+			token.append('\\');
+		}
+		token.append(c);
+	}
+
+	/**
+	 * Same as <code>feed(input)</code> followed by {@link #end()}, except that a token without quotes and escapes
+	 * is given to the consumer as a slice of the input, so its characters are not copied.
+	 *
+	 * @param input
+	 * @throws InvalidArgumentsException
+	 */
+	void tokenize(CharSequence input) throws InvalidArgumentsException {
+		Slice slice = new Slice(input);
+		for (int i = 0, length = input.length(); i < length; ) {
+			char c = input.charAt(i);
+			if (inToken || quote != 0 || escape || escapedReturn || comment || c == '#') {
+				feed(c);
+				i++;
+			} else if (Character.isWhitespace(c)) {
+				i++;
+			} else {
+				int end = i;
+				while (end < length && isPlain(input.charAt(end))) {
+					end++;
+				}
+				if (end == length || Character.isWhitespace(input.charAt(end))) {
+					consumer.accept(slice.of(i, end));
+				} else {
+					token.append(input, i, end);
+					inToken = true;
+				}
+				i = end;
+			}
+		}
+		end();
+	}
+
+	/**
+	 * Emits the last token.
+	 *
+	 * @throws InvalidArgumentsException if a quote is not closed or the input ends with a backslash.
+	 */
+	void end() throws InvalidArgumentsException {
+		if (escapedReturn) {
+			escapedReturn = false;
+			escaped('\r');
+		}
+		if (quote != 0) {
+			throw new InvalidArgumentsException(ErrorCode.MALFORMED_COMMAND_LINE, String.format("The quote %s is not closed.", quote));
+		}
+		if (escape) {
+			throw new InvalidArgumentsException(ErrorCode.MALFORMED_COMMAND_LINE, "The backslash at the end escapes nothing.");
+		}
+		if (inToken) {
+			emit();
+		}
+		comment = false;
+	}
+
+	private static boolean isPlain(char c) {
+		return c != '\'' && c != '"' && c != '\\' && !Character.isWhitespace(c);
+	}
+
+	private void emit() throws InvalidArgumentsException {
+		try {
+			consumer.accept(token);
+		} finally {
+			token.setLength(0);
+			inToken = false;
+		}
+	}
+
+	/**
+	 * A range of the input, which is copied only when it is turned into a string.
+	 */
+	private static final class Slice implements CharSequence {
+
+		private final CharSequence input;
+
+		private int start;
+
+		private int end;
+
+		Slice(CharSequence input) {
+			this.input = input;
+		}
+
+		Slice of(int start, int end) {
+			this.start = start;
+			this.end = end;
+			return this;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return input.charAt(start + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return input.subSequence(this.start + start, this.start + end);
+		}
+
+		@Override
+		public String toString() {
+			return input.subSequence(start, end).toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,92 @@
+package org.silentsoft.arguments.parser;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An argument read by {@link ArgumentsCodec#read(ByteBuffer)}, whose values stay encoded in the buffer until one of them is asked for.
+ * Then all of its values are decoded at once, and kept.<p>
+ * The hash code has been encoded along with the argument, so neither sealing nor hashing decodes the values.
+ */
+final class EncodedArgument extends Argument {
+
+	/**
+	 * A view of the encoded arguments, which is shared by the arguments that have been read together.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * The absolute position of the first value in the {@link #buffer}.
+	 */
+	private final int position;
+
+	private final int size;
+
+	private final int hash;
+
+	private volatile String[] decoded;
+
+	private volatile List<String> values;
+
+	EncodedArgument(String key, ByteBuffer buffer, int position, int size, int hash) {
+		super(key, null);
+		this.buffer = buffer;
+		this.position = position;
+		this.size = size;
+		this.hash = hash;
+	}
+
+	@Override
+	int valueCount() {
+		return size;
+	}
+
+	@Override
+	String value(int i) {
+		String[] decoded = this.decoded;
+		if (decoded == null) {
+			decoded = new String[size];
+			for (int offset = position, j = 0; j < size; j++) {
+				int length = buffer.getInt(offset);
+				decoded[j] = ArgumentsCodec.decode(buffer, offset + 4, length);
+				offset += 4 + length;
+			}
+			this.decoded = decoded;
+		}
+		return decoded[i];
+	}
+
+	@Override
+	public List<String> getValues() {
+		List<String> values = this.values;
+		if (values == null) {
+			this.values = values = new Values();
+		}
+		return values;
+	}
+
+	@Override
+	Argument seal() {
+		return seal(hash);
+	}
+
+	private final class Values extends AbstractList<String> implements RandomAccess {
+
+		@Override
+		public String get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size));
+			}
+			return value(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
@@ -0,0 +1,73 @@
+package org.silentsoft.arguments.parser;
+
+/**
+ * The reason of an {@link InvalidArgumentsException}.
+ */
+public enum ErrorCode {
+
+	/**
+	 * The exception has been created without a reason, e.g. by a validator.
+	 */
+	UNSPECIFIED,
+
+	/**
+	 * The parsing options cannot be used together.
+	 */
+	CONFLICTING_OPTIONS,
+
+	/**
+	 * A declared key does not start with '-'.
+	 */
+	INVALID_DECLARATION,
+
+	/**
+	 * A token consists of dashes only.
+	 */
+	MISSING_KEY,
+
+	/**
+	 * The first token is a value, not a key.
+	 */
+	VALUE_WITHOUT_KEY,
+
+	/**
+	 * A key abbreviates more than one declared key.
+	 */
+	AMBIGUOUS_KEY,
+
+	/**
+	 * A key is not declared, with {@link ParsingOptions#REJECT_UNDECLARED_KEYS}.
+	 */
+	UNDECLARED_KEY,
+
+	/**
+	 * The first token is not a registered subcommand.
+	 */
+	UNKNOWN_SUBCOMMAND,
+
+	/**
+	 * A quote is not closed, or the last character is a backslash.
+	 */
+	MALFORMED_COMMAND_LINE,
+
+	/**
+	 * An argument file cannot be read.
+	 */
+	UNREADABLE_ARGUMENT_FILE,
+
+	/**
+	 * A value cannot be converted by a typed accessor.
+	 */
+	INVALID_VALUE,
+
+	/**
+	 * The validator has rejected the arguments.
+	 */
+	VALIDATION_FAILED,
+
+	/**
+	 * The encoded arguments are truncated or corrupted, or have been encoded by an unsupported version.
+	 */
+	MALFORMED_ENCODING
+
+}
@@ -0,0 +1,89 @@
+package org.silentsoft.arguments.parser;
+
+/**
+ * Parses tokens as they arrive, without buffering them into a <code>String[]</code> first.<p>
+ * Each token is checked as soon as it is accepted, so an invalid command line fails at the first offending token.
+ * A rejected token is not accepted, and the tokens before it are kept.<p>
+ * An instance is not thread-safe and can be completed only once.
+ *
+ * @see ArgumentsParser#incremental()
+ */
+public final class IncrementalArgumentsParser {
+
+	private final ArgumentsParser parser;
+
+	private ArgumentsBuilder builder;
+
+	private final ArgumentsListener listener;
+
+	/**
+	 * The time spent in {@link #accept(CharSequence)}, which is measured only for a listener.
+	 */
+	private long nanos;
+
+	/**
+	 * Whether the listener has been told that the parsing has begun.
+	 */
+	private boolean parsing;
+
+	IncrementalArgumentsParser(ArgumentsParser parser, ArgumentsBuilder builder, ArgumentsListener listener) {
+		this.parser = parser;
+		this.builder = builder;
+		this.listener = listener;
+	}
+
+	/**
+	 * @param token
+	 * @return
+	 * @throws InvalidArgumentsException if the key of the token is missing, or if the first token is not a key.
+	 */
+	public IncrementalArgumentsParser accept(CharSequence token) throws InvalidArgumentsException {
+		ArgumentsBuilder builder = builder();
+		long start = 0L;
+		if (listener != ArgumentsListener.NOOP) {
+			if (!parsing) {
+				parsing = true;
+				listener.parsing();
+			}
+			start = System.nanoTime();
+		}
+		try {
+			builder.accept(token);
+		} catch (InvalidArgumentsException e) {
+			// the failure ends the parsing for the listener, so the next token begins it again
+			parsing = false;
+			throw parser.failed(e);
+		}
+		if (listener != ArgumentsListener.NOOP) {
+			nanos += System.nanoTime() - start;
+		}
+		return this;
+	}
+
+	/**
+	 * Builds the arguments from the accepted tokens, and then invokes the helper or the validator as {@link ArgumentsParser#parse()} does.
+	 *
+	 * @return
+	 * @throws InvalidArgumentsException
+	 */
+	public Arguments complete() throws InvalidArgumentsException {
+		ArgumentsBuilder builder = builder();
+		Arguments arguments = builder.build();
+		this.builder = null;
+		if (listener != ArgumentsListener.NOOP) {
+			if (!parsing) {
+				listener.parsing();
+			}
+			listener.parsed(builder.profile(), builder.tokens(), arguments.size(), nanos);
+		}
+		return parser.complete(arguments, builder.undeclared()).orElseThrow();
+	}
+
+	private ArgumentsBuilder builder() {
+		if (builder == null) {
+			throw new IllegalStateException("The parser has already been completed.");
+		}
+		return builder;
+	}
+
+}
@@ -4,12 +4,35 @@ public class InvalidArgumentsException extends Exception {
 
 	private static final long serialVersionUID = -4994337915808781759L;
 	
+	private final ErrorCode errorCode;
+	
 	public InvalidArgumentsException() {
-		super();
+		this(ErrorCode.UNSPECIFIED, null);
 	}
 	
 	public InvalidArgumentsException(String message) {
+		this(ErrorCode.UNSPECIFIED, message);
+	}
+	
+	public InvalidArgumentsException(String message, Throwable cause) {
+		this(ErrorCode.UNSPECIFIED, message, cause);
+	}
+	
+	public InvalidArgumentsException(ErrorCode errorCode, String message) {
 		super(message);
+		this.errorCode = errorCode;
+	}
+	
+	public InvalidArgumentsException(ErrorCode errorCode, String message, Throwable cause) {
+		super(message, cause);
+		this.errorCode = errorCode;
+	}
+	
+	/**
+	 * @return {@link ErrorCode#UNSPECIFIED} if the exception has been created without an error code.
+	 */
+	public ErrorCode getErrorCode() {
+		return errorCode;
 	}
 
 }
@@ -0,0 +1,131 @@
+package org.silentsoft.arguments.parser;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of strings which lets the {@link Arguments} of many command lines share the same instances of their keys and values,
+ * instead of keeping a copy of each normalized key and of each value per command line.
+ * <pre>
+ * private static final KeyPool POOL = new KeyPool(4096);
+ *
+ * public Arguments parseArguments(String[] args) throws InvalidArgumentsException {
+ *     return Arguments.parser(args).pool(POOL).parse();
+ * }
+ * </pre>
+ * The keys and the values have a budget of their own, and strings are pooled in the order they are seen until their budget is spent.
+ * After that, a string which is not in the pool is kept as it is, so unique values such as timestamps can neither grow the pool without bound
+ * nor crowd the keys out of it. A pool is thread-safe, and is never cleared.
+ *
+ * @see ArgumentsParser#pool(KeyPool)
+ */
+public final class KeyPool {
+
+	private final Partition keys;
+
+	private final Partition values;
+
+	/**
+	 * Creates a pool which keeps up to the given number of keys, and as many values.
+	 *
+	 * @param maximumSize the maximum number of keys, and of values, to keep
+	 * @throws IllegalArgumentException if the <code>maximumSize</code> is not positive
+	 */
+	public KeyPool(int maximumSize) {
+		this(maximumSize, maximumSize);
+	}
+
+	/**
+	 * @param maximumKeys the maximum number of keys to keep
+	 * @param maximumValues the maximum number of values to keep, which may be zero not to pool the values
+	 * @throws IllegalArgumentException if the <code>maximumKeys</code> is not positive, or the <code>maximumValues</code> is negative
+	 */
+	public KeyPool(int maximumKeys, int maximumValues) {
+		if (maximumKeys <= 0) {
+			throw new IllegalArgumentException(String.format("The maximum number of keys must be positive but was %d.", maximumKeys));
+		}
+		if (maximumValues < 0) {
+			throw new IllegalArgumentException(String.format("The maximum number of values must not be negative but was %d.", maximumValues));
+		}
+		this.keys = new Partition(maximumKeys);
+		this.values = new Partition(maximumValues);
+	}
+
+	/**
+	 * @param key a normalized key
+	 * @return the pooled instance which equals to the given key, or the given key if the keys are full.
+	 */
+	public String internKey(String key) {
+		return keys.intern(key);
+	}
+
+	/**
+	 * @param value
+	 * @return the pooled instance which equals to the given value, or the given value if the values are full.
+	 */
+	public String internValue(String value) {
+		return values.intern(value);
+	}
+
+	/**
+	 * @return the number of pooled keys
+	 */
+	public int getKeyCount() {
+		return keys.strings.size();
+	}
+
+	/**
+	 * @return the number of pooled values
+	 */
+	public int getValueCount() {
+		return values.strings.size();
+	}
+
+	public int getMaximumKeys() {
+		return keys.maximumSize;
+	}
+
+	public int getMaximumValues() {
+		return values.maximumSize;
+	}
+
+	private static final class Partition {
+
+		private final int maximumSize;
+
+		private final ConcurrentHashMap<String, String> strings;
+
+		private final AtomicInteger size;
+
+		private Partition(int maximumSize) {
+			this.maximumSize = maximumSize;
+			this.strings = new ConcurrentHashMap<String, String>();
+			this.size = new AtomicInteger();
+		}
+
+		private String intern(String string) {
+			if (string == null) {
+				return null;
+			}
+
+			String pooled = strings.get(string);
+			if (pooled != null) {
+				return pooled;
+			}
+
+			// a slot is reserved before the string is added, so the partition never exceeds its maximum size
+			if (size.incrementAndGet() > maximumSize) {
+				size.decrementAndGet();
+				return string;
+			}
+			pooled = strings.putIfAbsent(string, string);
+			if (pooled != null) {
+				size.decrementAndGet();
+				return pooled;
+			}
+			return string;
+		}
+
+	}
+
+}
@@ -0,0 +1,137 @@
+package org.silentsoft.arguments.parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A BK-tree of declared keys which finds the keys within a small edit distance of a mistyped key.<p>
+ * Since the distance satisfies the triangle inequality, a query visits only the subtrees whose distance to the query
+ * can be within the limit, instead of every declared key.
+ */
+final class KeySuggester {
+
+	private Node root;
+
+	/**
+	 * @param keys the declared keys by their normalized keys
+	 */
+	KeySuggester(Map<String, String> keys) {
+		int order = 0;
+		for (Map.Entry<String, String> entry : keys.entrySet()) {
+			Node node = new Node(entry.getKey(), entry.getValue(), order++);
+			if (root == null) {
+				root = node;
+			} else {
+				root.add(node);
+			}
+		}
+	}
+
+	/**
+	 * @param key a normalized key
+	 * @param limit the maximum number of suggestions
+	 * @return the declared keys which are closest to the given key, the closest first.
+	 */
+	List<String> suggest(String key, int limit) {
+		int maximumDistance = Math.min(3, Math.max(1, ArgumentScanner.stripDashes(key).length() / 3));
+		List<Match> matches = new ArrayList<Match>();
+		Deque<Node> nodes = new ArrayDeque<Node>();
+		if (root != null) {
+			nodes.push(root);
+		}
+		while (!nodes.isEmpty()) {
+			Node node = nodes.pop();
+			int distance = distance(key, node.normalized);
+			if (distance <= maximumDistance) {
+				matches.add(new Match(node, distance));
+			}
+			for (int i = Math.max(1, distance - maximumDistance), to = Math.min(node.children.length - 1, distance + maximumDistance); i <= to; i++) {
+				if (node.children[i] != null) {
+					nodes.push(node.children[i]);
+				}
+			}
+		}
+
+		matches.sort(Comparator.comparingInt((Match match) -> match.distance).thenComparingInt(match -> match.node.order));
+		List<String> suggestions = new ArrayList<String>();
+		for (int i = 0; i < matches.size() && i < limit; i++) {
+			suggestions.add(matches.get(i).node.declared);
+		}
+		return suggestions;
+	}
+
+	/**
+	 * The Levenshtein distance between two keys.
+	 */
+	static int distance(String a, String b) {
+		int[] previous = new int[b.length() + 1], current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			for (int j = 1; j <= b.length(); j++) {
+				int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+				current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()];
+	}
+
+	private static final class Node {
+
+		private final String normalized;
+
+		private final String declared;
+
+		private final int order;
+
+		/**
+		 * The children by their distance to this node.
+		 */
+		private Node[] children = new Node[0];
+
+		Node(String normalized, String declared, int order) {
+			this.normalized = normalized;
+			this.declared = declared;
+			this.order = order;
+		}
+
+		void add(Node node) {
+			for (Node parent = this; ; ) {
+				int distance = distance(parent.normalized, node.normalized);
+				if (distance >= parent.children.length) {
+					parent.children = Arrays.copyOf(parent.children, distance + 1);
+				}
+				if (parent.children[distance] == null) {
+					parent.children[distance] = node;
+					return;
+				}
+				parent = parent.children[distance];
+			}
+		}
+
+	}
+
+	private static final class Match {
+
+		private final Node node;
+
+		private final int distance;
+
+		Match(Node node, int distance) {
+			this.node = node;
+			this.distance = distance;
+		}
+
+	}
+
+}
@@ -0,0 +1,153 @@
+package org.silentsoft.arguments.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A character trie of declared keys which resolves a key from any prefix that is shared by no other declared key.<p>
+ * The case sensitivity of a key follows the rule of its dash prefix, as it does in {@link ArgumentsIndex}.
+ * Since keys with different dash prefixes never share a path below their dashes, a single trie serves every rule.
+ * If the dash prefix is removed, keys are matched without their dashes.
+ */
+final class KeyTrie {
+
+	private final ParsingProfile profile;
+
+	private final boolean removeDashPrefix;
+
+	private final Node root;
+
+	KeyTrie(ParsingProfile profile, Iterable<String> keys) {
+		this.profile = profile;
+		this.removeDashPrefix = profile.contains(ParsingOptions.REMOVE_DASH_PREFIX);
+		this.root = new Node();
+		for (String key : keys) {
+			put(key);
+		}
+	}
+
+	private void put(String key) {
+		Node existing = find(key);
+		if (existing != null && existing.key != null) {
+			return;
+		}
+
+		boolean ignoreCase = profile.ignoreCase(key);
+		String path = removeDashPrefix ? ArgumentScanner.stripDashes(key) : key;
+		Node node = root;
+		node.count++;
+		for (int i = 0, length = path.length(); i < length; i++) {
+			node = node.child(ignoreCase ? ArgumentsIndex.fold(path.charAt(i)) : path.charAt(i), true);
+			node.count++;
+			node.only = key;
+		}
+		node.key = key;
+	}
+
+	private Node find(String key) {
+		boolean ignoreCase = profile.ignoreCase(key);
+		String path = removeDashPrefix ? ArgumentScanner.stripDashes(key) : key;
+		Node node = root;
+		for (int i = 0, length = path.length(); i < length && node != null; i++) {
+			node = node.child(ignoreCase ? ArgumentsIndex.fold(path.charAt(i)) : path.charAt(i), false);
+		}
+		return node;
+	}
+
+	/**
+	 * Takes time proportional to the length of the key, no matter how many keys are declared.
+	 *
+	 * @param key a key as it is given in the command line
+	 * @return the declared key which equals to the given key, or the only declared key that starts with it,
+	 *         or the given key if no declared key starts with it, or <code>null</code> if more than one declared key starts with it.
+	 */
+	String resolve(String key) {
+		Node node = find(key);
+		if (node == null) {
+			return key;
+		} else if (node.key != null) {
+			return node.key;
+		} else if (node.count == 1) {
+			return node.only;
+		}
+		return null;
+	}
+
+	/**
+	 * @param key a key as it is given in the command line
+	 * @return the declared keys that start with the given key.
+	 */
+	List<String> candidates(String key) {
+		List<String> candidates = new ArrayList<String>();
+		Node node = find(key);
+		if (node != null) {
+			collect(node, candidates);
+		}
+		return candidates;
+	}
+
+	private static void collect(Node node, List<String> keys) {
+		if (node.key != null) {
+			keys.add(node.key);
+		}
+		for (int i = 0; i < node.size; i++) {
+			collect(node.children[i], keys);
+		}
+	}
+
+	private static final class Node {
+
+		private static final char[] NO_LABELS = new char[0];
+
+		private static final Node[] NO_CHILDREN = new Node[0];
+
+		/**
+		 * Sorted, to find a child by binary search.
+		 */
+		private char[] labels = NO_LABELS;
+
+		private Node[] children = NO_CHILDREN;
+
+		private int size;
+
+		/**
+		 * The number of declared keys that pass through this node.
+		 */
+		private int count;
+
+		/**
+		 * One of the declared keys that pass through this node, which is the only one if {@link #count} is 1.
+		 */
+		private String only;
+
+		/**
+		 * The declared key that ends at this node.
+		 */
+		private String key;
+
+		Node child(char label, boolean create) {
+			int i = Arrays.binarySearch(labels, 0, size, label);
+			if (i >= 0) {
+				return children[i];
+			}
+			if (!create) {
+				return null;
+			}
+
+			i = -(i + 1);
+			if (size == labels.length) {
+				labels = Arrays.copyOf(labels, Math.max(2, size * 2));
+				children = Arrays.copyOf(children, labels.length);
+			}
+			System.arraycopy(labels, i, labels, i + 1, size - i);
+			System.arraycopy(children, i, children, i + 1, size - i);
+			labels[i] = label;
+			children[i] = new Node();
+			size++;
+			return children[i];
+		}
+
+	}
+
+}
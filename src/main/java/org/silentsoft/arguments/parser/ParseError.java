@@ -0,0 +1,79 @@
+package org.silentsoft.arguments.parser;
+
+/**
+ * A reason why a command line has failed, with the position of the offending token.<p>
+ * Unlike {@link InvalidArgumentsException}, an error is a plain value which costs no stack trace.
+ *
+ * @see ParseResult#getErrors()
+ */
+public final class ParseError {
+
+	private final int index;
+
+	private final String text;
+
+	private final ErrorCode errorCode;
+
+	private final String message;
+
+	private final Throwable cause;
+
+	ParseError(int index, String text, ErrorCode errorCode, String message) {
+		this(index, text, errorCode, message, null);
+	}
+
+	ParseError(int index, String text, ErrorCode errorCode, String message, Throwable cause) {
+		this.index = index;
+		this.text = text;
+		this.errorCode = errorCode;
+		this.message = message;
+		this.cause = cause;
+	}
+
+	/**
+	 * @param exception
+	 * @return an error which is not about a token, e.g. of a validator
+	 */
+	static ParseError of(InvalidArgumentsException exception) {
+		return new ParseError(-1, null, exception.getErrorCode(), exception.getMessage(), exception.getCause());
+	}
+
+	/**
+	 * The tokens of an argument file have the index of the <code>@path</code> token,
+	 * and the tokens after a subcommand count the subcommand as well.
+	 *
+	 * @return the index of the offending token in the command line, or <code>-1</code> if the error is not about a token.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return the offending token, or <code>null</code> if the error is not about a token.
+	 */
+	public String getText() {
+		return text;
+	}
+
+	public ErrorCode getErrorCode() {
+		return errorCode;
+	}
+
+	/**
+	 * @return <code>null</code> if a validator has rejected the arguments without a message.
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	InvalidArgumentsException toException() {
+		return cause != null ? new InvalidArgumentsException(errorCode, message, cause) : new InvalidArgumentsException(errorCode, message);
+	}
+
+	@Override
+	public String toString() {
+		String string = message != null ? message : errorCode.toString();
+		return index < 0 ? string : String.format("%s (at %d: %s)", string, index, text);
+	}
+
+}
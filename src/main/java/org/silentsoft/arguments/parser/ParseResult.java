@@ -0,0 +1,104 @@
+package org.silentsoft.arguments.parser;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of parsing a command line, which holds either the parsed {@link Arguments} or the errors of the command line.<p>
+ * The errors are plain values, and an {@link InvalidArgumentsException} is created only when it is asked for,
+ * unless a validator has thrown one.
+ *
+ * @see ArgumentsParser#tryParse()
+ * @see ArgumentsParser#parseAll(java.util.stream.Stream)
+ */
+public final class ParseResult {
+
+	private final Arguments arguments;
+
+	private final List<ParseError> errors;
+
+	private volatile InvalidArgumentsException exception;
+
+	private ParseResult(Arguments arguments, List<ParseError> errors, InvalidArgumentsException exception) {
+		this.arguments = arguments;
+		this.errors = errors;
+		this.exception = exception;
+	}
+
+	static ParseResult success(Arguments arguments) {
+		return new ParseResult(arguments, Collections.<ParseError>emptyList(), null);
+	}
+
+	/**
+	 * @param errors at least one
+	 */
+	static ParseResult failure(List<ParseError> errors) {
+		return new ParseResult(null, Collections.unmodifiableList(errors), null);
+	}
+
+	static ParseResult failure(ParseError error) {
+		return new ParseResult(null, Collections.singletonList(error), null);
+	}
+
+	/**
+	 * @param exception which is kept as it is, for {@link #getException()}
+	 */
+	static ParseResult failure(InvalidArgumentsException exception) {
+		return new ParseResult(null, Collections.singletonList(ParseError.of(exception)), exception);
+	}
+
+	/**
+	 * @return <code>true</code> if the command line has been parsed and accepted by the validators.
+	 */
+	public boolean isSuccess() {
+		return errors.isEmpty();
+	}
+
+	/**
+	 * @return <code>null</code> if the parsing has failed.
+	 */
+	public Arguments getArguments() {
+		return arguments;
+	}
+
+	/**
+	 * @return the errors in the order they have been found, or an empty list if the parsing has succeeded.
+	 */
+	public List<ParseError> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * The exception of the first error, which has the exceptions of the other errors as {@link Throwable#getSuppressed() suppressed} exceptions.
+	 *
+	 * @return <code>null</code> if the parsing has succeeded.
+	 */
+	public InvalidArgumentsException getException() {
+		InvalidArgumentsException exception = this.exception;
+		if (exception == null && !errors.isEmpty()) {
+			exception = errors.get(0).toException();
+			for (int i = 1; i < errors.size(); i++) {
+				exception.addSuppressed(errors.get(i).toException());
+			}
+			this.exception = exception;
+		}
+		return exception;
+	}
+
+	/**
+	 * @return the parsed arguments
+	 * @throws InvalidArgumentsException if the parsing has failed
+	 */
+	public Arguments orElseThrow() throws InvalidArgumentsException {
+		if (!errors.isEmpty()) {
+			throw getException();
+		}
+		return arguments;
+	}
+
+	@Override
+	public String toString() {
+		return errors.isEmpty() ? String.valueOf(arguments) : "Failure: " + errors;
+	}
+
+}
@@ -16,6 +16,13 @@ package org.silentsoft.arguments.parser;
  * <li>CASE_SENSITIVE</li>
  * <li>CASE_INSENSITIVE</li>
  * </ul>
+ *
+ * Other Parsing Options
+ * <ul>
+ * <li>EXPAND_ARGUMENT_FILES: replaces <code>@path/to/file</code> with the tokens in the file, see {@link ArgumentsParser#parse()}</li>
+ * <li>ALLOW_ABBREVIATION: resolves a key from a prefix that only one of the declared keys starts with, see {@link ParsingProfile#declare(String...)}</li>
+ * <li>REJECT_UNDECLARED_KEYS: rejects a key that is not declared, with the similar declared keys as suggestions, see {@link ParsingProfile#declare(String...)}</li>
+ * </ul>
  */
 public enum ParsingOptions {
     LEAVE_DASH_PREFIX,
@@ -27,4 +34,8 @@ public enum ParsingOptions {
     REMOVE_DASH_PREFIX,
     CASE_SENSITIVE,
     CASE_INSENSITIVE,
+
+    EXPAND_ARGUMENT_FILES,
+    ALLOW_ABBREVIATION,
+    REJECT_UNDECLARED_KEYS,
 }
@@ -0,0 +1,328 @@
+package org.silentsoft.arguments.parser;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * A validated and resolved set of {@link ParsingOptions}.<p>
+ * A profile is immutable, so it can be built once and then reused by any number of parsers.
+ * <pre>
+ * private static final ParsingProfile PROFILE = ParsingProfile.of(ParsingOptions.REMOVE_DASH_PREFIX);
+ *
+ * public Arguments parseArguments(String[] args) throws InvalidArgumentsException {
+ *     return Arguments.parser(args).profile(PROFILE).parse();
+ * }
+ * </pre>
+ */
+public final class ParsingProfile {
+
+	private static final String[] HELP_KEYS = {"-help", "--help", "-?", "--?"};
+
+	private static final ParsingProfile DEFAULT = new ParsingProfile(resolve(EnumSet.noneOf(ParsingOptions.class)), Collections.<String>emptySet());
+
+	/**
+	 * @param parsingOptions
+	 * @return
+	 * @throws InvalidArgumentsException if the given parsing options cannot be used together
+	 */
+	public static ParsingProfile of(ParsingOptions... parsingOptions) throws InvalidArgumentsException {
+		EnumSet<ParsingOptions> options = EnumSet.noneOf(ParsingOptions.class);
+		if (parsingOptions != null) {
+			for (ParsingOptions parsingOption : parsingOptions) {
+				if (parsingOption != null) {
+					options.add(parsingOption);
+				}
+			}
+		}
+
+		if (options.isEmpty()) {
+			return DEFAULT;
+		}
+
+		assertOptions(options);
+
+		return new ParsingProfile(resolve(options), Collections.<String>emptySet());
+	}
+
+	private final Set<ParsingOptions> options;
+
+	private final boolean singleDashInsensitive;
+
+	private final boolean doubleDashInsensitive;
+
+	private final boolean insensitive;
+
+	private final boolean removeDashPrefix;
+
+	private final boolean expandArgumentFiles;
+
+	private final Set<String> declaredKeys;
+
+	/**
+	 * The declared keys by their keys as they are stored in {@link Arguments}.
+	 */
+	private final Map<String, String> normalizedKeys;
+
+	/**
+	 * Built when the first undeclared key is found.
+	 */
+	private volatile KeySuggester suggester;
+
+	/**
+	 * <code>null</code> unless {@link ParsingOptions#ALLOW_ABBREVIATION} is given.
+	 */
+	private final KeyTrie trie;
+
+	private ParsingProfile(EnumSet<ParsingOptions> options, Set<String> declaredKeys) {
+		this.options = Collections.unmodifiableSet(options);
+		this.declaredKeys = declaredKeys;
+		this.normalizedKeys = new LinkedHashMap<String, String>();
+		this.singleDashInsensitive = options.contains(ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH);
+		this.doubleDashInsensitive = options.contains(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH);
+		this.insensitive = options.contains(ParsingOptions.CASE_INSENSITIVE);
+		this.removeDashPrefix = options.contains(ParsingOptions.REMOVE_DASH_PREFIX);
+		this.expandArgumentFiles = options.contains(ParsingOptions.EXPAND_ARGUMENT_FILES);
+		this.trie = options.contains(ParsingOptions.ALLOW_ABBREVIATION) ? new KeyTrie(this, declaredKeys) : null;
+		for (String key : declaredKeys) {
+			normalizedKeys.putIfAbsent(normalize(key), key);
+		}
+	}
+
+	/**
+	 * Declares the keys that the command line may have, in addition to the keys already declared by this profile.
+	 * With {@link ParsingOptions#ALLOW_ABBREVIATION}, a key in the command line can be abbreviated to any prefix which is shared by no other declared key.
+	 * With {@link ParsingOptions#REJECT_UNDECLARED_KEYS}, a key in the command line must be one of the declared keys.
+	 * <pre>
+	 * private static final ParsingProfile PROFILE = ParsingProfile.of(ParsingOptions.ALLOW_ABBREVIATION).declare("--verbose", "--version");
+	 *
+	 * Arguments.parser(new String[] {"--verb"}).profile(PROFILE).parse().containsKey("--verbose"); // true
+	 * </pre>
+	 *
+	 * @param keys the keys with their dash prefix
+	 * @return a new profile with the same options
+	 * @throws InvalidArgumentsException if any of the keys does not start with '-'
+	 */
+	public ParsingProfile declare(String... keys) throws InvalidArgumentsException {
+		Set<String> declaredKeys = new LinkedHashSet<String>(this.declaredKeys);
+		for (String key : keys) {
+			if (key == null || !key.startsWith("-") || ArgumentScanner.stripDashes(key).isEmpty()) {
+				throw new InvalidArgumentsException(ErrorCode.INVALID_DECLARATION, String.format("The declared key '%s' must be starts with '-' or '--'.", key));
+			}
+			declaredKeys.add(key);
+		}
+		return new ParsingProfile(EnumSet.copyOf(options), Collections.unmodifiableSet(declaredKeys));
+	}
+
+	/**
+	 * @return the declared keys, in the order they have been declared.
+	 */
+	public Set<String> getDeclaredKeys() {
+		return declaredKeys;
+	}
+
+	/**
+	 * @return the resolved parsing options, including the defaults that have been filled in.
+	 */
+	public Set<ParsingOptions> getOptions() {
+		return options;
+	}
+
+	public boolean contains(ParsingOptions parsingOption) {
+		return options.contains(parsingOption);
+	}
+
+	/**
+	 * @param key a parsed key with its dash prefix
+	 * @return the key as it is stored in {@link Arguments}
+	 */
+	String normalize(String key) {
+		if (ignoreCase(key)) {
+			key = key.toLowerCase();
+		}
+
+		return removeDashPrefix ? ArgumentScanner.stripDashes(key) : key;
+	}
+
+	boolean expandsArgumentFiles() {
+		return expandArgumentFiles;
+	}
+
+	/**
+	 * @param key a parsed key with its dash prefix
+	 * @return the declared key that the given key abbreviates, or the given key if it abbreviates none,
+	 *         or <code>null</code> if the given key abbreviates more than one declared key.
+	 */
+	String expandAbbreviation(String key) {
+		return trie != null ? trie.resolve(key) : key;
+	}
+
+	/**
+	 * @param key a parsed key with its dash prefix
+	 * @return the declared keys that the given key abbreviates.
+	 */
+	List<String> abbreviated(String key) {
+		return trie != null ? trie.candidates(key) : Collections.<String>emptyList();
+	}
+
+	boolean rejectsUndeclaredKeys() {
+		return options.contains(ParsingOptions.REJECT_UNDECLARED_KEYS);
+	}
+
+	/**
+	 * @param key a key as it is stored in {@link Arguments}
+	 */
+	boolean isDeclared(String key) {
+		return normalizedKeys.containsKey(key);
+	}
+
+	/**
+	 * @param key a key as it is stored in {@link Arguments}
+	 * @return <code>true</code> if the key is one of the help keys, which are never rejected as undeclared.
+	 */
+	boolean isHelpKey(String key) {
+		for (String helpKey : HELP_KEYS) {
+			if (key.equals(normalize(helpKey))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param key a key as it is stored in {@link Arguments}
+	 * @param limit
+	 * @return the declared keys which are similar to the given key, the most similar first.
+	 */
+	List<String> suggest(String key, int limit) {
+		KeySuggester suggester = this.suggester;
+		if (suggester == null) {
+			synchronized (this) {
+				suggester = this.suggester;
+				if (suggester == null) {
+					this.suggester = suggester = new KeySuggester(normalizedKeys);
+				}
+			}
+		}
+		return suggester.suggest(key, limit);
+	}
+
+	/**
+	 * @param key a key with or without its dash prefix
+	 * @return <code>true</code> if the key is compared regardless of case
+	 */
+	boolean ignoreCase(String key) {
+		if (key.startsWith("--")) {
+			return doubleDashInsensitive || insensitive;
+		} else if (key.startsWith("-")) {
+			return singleDashInsensitive || insensitive;
+		}
+
+		return insensitive;
+	}
+
+	private static void assertOptions(Set<ParsingOptions> options) throws InvalidArgumentsException {
+		BiFunction<ParsingOptions, ParsingOptions, String> message = (x, y) -> {
+			return String.format("%s and %s parsing options cannot be used together.", x.name(), y.name());
+		};
+		
+		if (options.contains(ParsingOptions.LEAVE_DASH_PREFIX) && options.contains(ParsingOptions.REMOVE_DASH_PREFIX)) {
+			throw new InvalidArgumentsException(ErrorCode.CONFLICTING_OPTIONS, message.apply(ParsingOptions.LEAVE_DASH_PREFIX, ParsingOptions.REMOVE_DASH_PREFIX));
+		}
+		
+		if (options.contains(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH) && options.contains(ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH)) {
+			throw new InvalidArgumentsException(ErrorCode.CONFLICTING_OPTIONS, message.apply(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH, ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH));
+		}
+		
+		if (options.contains(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH) && options.contains(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH)) {
+			throw new InvalidArgumentsException(ErrorCode.CONFLICTING_OPTIONS, message.apply(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH, ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH));
+		}
+		
+		if (options.contains(ParsingOptions.CASE_SENSITIVE) && options.contains(ParsingOptions.CASE_INSENSITIVE)) {
+			throw new InvalidArgumentsException(ErrorCode.CONFLICTING_OPTIONS, message.apply(ParsingOptions.CASE_SENSITIVE, ParsingOptions.CASE_INSENSITIVE));
+		}
+		
+		if (options.contains(ParsingOptions.LEAVE_DASH_PREFIX)) {
+			if (options.contains(ParsingOptions.CASE_SENSITIVE)) {
+				throw new InvalidArgumentsException(ErrorCode.CONFLICTING_OPTIONS, message.apply(ParsingOptions.LEAVE_DASH_PREFIX, ParsingOptions.CASE_SENSITIVE));
+			}
+			
+			if (options.contains(ParsingOptions.CASE_INSENSITIVE)) {
+				throw new InvalidArgumentsException(ErrorCode.CONFLICTING_OPTIONS, message.apply(ParsingOptions.LEAVE_DASH_PREFIX, ParsingOptions.CASE_INSENSITIVE));
+			}
+		}
+		
+		if (options.contains(ParsingOptions.REMOVE_DASH_PREFIX)) {
+			if (options.contains(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH)) {
+				throw new InvalidArgumentsException(ErrorCode.CONFLICTING_OPTIONS, message.apply(ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_SENSITIVE_SINGLE_DASH));
+			}
+			
+			if (options.contains(ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH)) {
+				throw new InvalidArgumentsException(ErrorCode.CONFLICTING_OPTIONS, message.apply(ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH));
+			}
+			
+			if (options.contains(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH)) {
+				throw new InvalidArgumentsException(ErrorCode.CONFLICTING_OPTIONS, message.apply(ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH));
+			}
+			
+			if (options.contains(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH)) {
+				throw new InvalidArgumentsException(ErrorCode.CONFLICTING_OPTIONS, message.apply(ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH));
+			}
+		}
+	}
+	
+	private static EnumSet<ParsingOptions> resolve(EnumSet<ParsingOptions> options) {
+		EnumSet<ParsingOptions> resolved = EnumSet.copyOf(options);
+		
+		if (!resolved.contains(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH) && !resolved.contains(ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH)) {
+			resolved.add(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH);
+		}
+		
+		if (!resolved.contains(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH) && !resolved.contains(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH)) {
+			resolved.add(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH);
+		}
+		
+		if (!resolved.contains(ParsingOptions.LEAVE_DASH_PREFIX) && !resolved.contains(ParsingOptions.REMOVE_DASH_PREFIX)) {
+			resolved.add(ParsingOptions.LEAVE_DASH_PREFIX);
+		}
+		
+		if (resolved.contains(ParsingOptions.REMOVE_DASH_PREFIX)) {
+			resolved.remove(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH);
+			resolved.remove(ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH);
+			resolved.remove(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH);
+			resolved.remove(ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH);
+			
+			if (!resolved.contains(ParsingOptions.CASE_INSENSITIVE) && !resolved.contains(ParsingOptions.CASE_SENSITIVE)) {
+				resolved.add(ParsingOptions.CASE_INSENSITIVE);
+			}
+		}
+		
+		return resolved;
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		ParsingProfile profile = (ParsingProfile) o;
+
+		return options.equals(profile.options) && declaredKeys.equals(profile.declaredKeys);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * options.hashCode() + declaredKeys.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return declaredKeys.isEmpty() ? options.toString() : options.toString() + " " + declaredKeys.toString();
+	}
+
+}
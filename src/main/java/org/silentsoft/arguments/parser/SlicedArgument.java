@@ -0,0 +1,173 @@
+package org.silentsoft.arguments.parser;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An argument whose values are ranges of the <code>String[]</code> that has been parsed, instead of a list of their own.<p>
+ * A key followed by its values takes a single range, which is kept in two ints. Each repetition of the key adds a range to a small array.
+ * The value of <code>--key=value</code> is not a whole token, so it is kept aside as a string.
+ * The list of the values is created only if {@link #getValues()} is called.
+ */
+final class SlicedArgument extends Argument {
+
+	/**
+	 * The parsed tokens, which must not change.
+	 */
+	private final String[] argv;
+
+	/**
+	 * The first range of values, <code>from</code> inclusive and <code>to</code> exclusive.
+	 * A negative <code>from</code> stands for the single value <code>~from</code> of {@link #inline}.
+	 * The range is empty if <code>from</code> equals to <code>to</code>.
+	 */
+	private int from;
+
+	private int to;
+
+	/**
+	 * The ranges after the first one, as triples of <code>from</code>, <code>to</code> and the number of values up to the end of the range,
+	 * or <code>null</code> if there is no other range.
+	 */
+	private int[] ranges;
+
+	private int rangeCount;
+
+	/**
+	 * The values which are not whole tokens, or <code>null</code> if there is none.
+	 */
+	private String[] inline;
+
+	private int inlineCount;
+
+	private int size;
+
+	private volatile List<String> values;
+
+	SlicedArgument(String key, String[] argv) {
+		super(key, null);
+		this.argv = argv;
+	}
+
+	/**
+	 * @param i the index of a token in the <code>argv</code>, which is a value of this argument
+	 */
+	void add(int i) {
+		if (size == 0) {
+			from = i;
+			to = i + 1;
+		} else if (rangeCount == 0 && from >= 0 && to == i) {
+			to++;
+		} else if (rangeCount > 0 && ranges[rangeCount * 3 - 3] >= 0 && ranges[rangeCount * 3 - 2] == i) {
+			ranges[rangeCount * 3 - 2]++;
+			ranges[rangeCount * 3 - 1]++;
+		} else {
+			addRange(i, i + 1);
+		}
+		size++;
+	}
+
+	/**
+	 * Adds a value which is not a whole token, e.g. of <code>--key=value</code>.
+	 */
+	@Override
+	void add(String value) {
+		if (inline == null) {
+			inline = new String[1];
+		} else if (inlineCount == inline.length) {
+			inline = Arrays.copyOf(inline, inlineCount * 2);
+		}
+		inline[inlineCount] = value;
+		int ref = ~inlineCount++;
+
+		if (size == 0) {
+			from = ref;
+			to = ref;
+		} else {
+			addRange(ref, ref);
+		}
+		size++;
+	}
+
+	private void addRange(int from, int to) {
+		if (ranges == null) {
+			ranges = new int[3];
+		} else if (rangeCount * 3 == ranges.length) {
+			ranges = Arrays.copyOf(ranges, ranges.length * 2);
+		}
+		int offset = rangeCount++ * 3;
+		ranges[offset] = from;
+		ranges[offset + 1] = to;
+		ranges[offset + 2] = size + 1;
+	}
+
+	@Override
+	int valueCount() {
+		return size;
+	}
+
+	@Override
+	String value(int i) {
+		int first = from < 0 ? 1 : to - from;
+		if (i < first) {
+			return from < 0 ? inline[~from] : argv[from + i];
+		}
+
+		// the first range whose end is beyond the given index
+		int low = 0, high = rangeCount - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (ranges[middle * 3 + 2] <= i) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		int offset = low * 3;
+		int start = ranges[offset];
+		if (start < 0) {
+			return inline[~start];
+		}
+		return argv[ranges[offset + 1] - (ranges[offset + 2] - i)];
+	}
+
+	@Override
+	public List<String> getValues() {
+		List<String> values = this.values;
+		if (values == null) {
+			this.values = values = new Values();
+		}
+		return values;
+	}
+
+	@Override
+	Argument seal() {
+		if (ranges != null && ranges.length > rangeCount * 3) {
+			ranges = Arrays.copyOf(ranges, rangeCount * 3);
+		}
+		if (inline != null && inline.length > inlineCount) {
+			inline = Arrays.copyOf(inline, inlineCount);
+		}
+		return super.seal();
+	}
+
+	private final class Values extends AbstractList<String> implements RandomAccess {
+
+		@Override
+		public String get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size));
+			}
+			return value(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
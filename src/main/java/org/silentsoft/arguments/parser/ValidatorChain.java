@@ -0,0 +1,122 @@
+package org.silentsoft.arguments.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs every validator of a parser, and aggregates their failures into a single {@link ParseResult}.<p>
+ * With an executor, the validators run concurrently: all but the last one on the executor, and the last one on the calling thread.
+ * So the validation takes about as long as the slowest validator instead of the sum of them.
+ */
+final class ValidatorChain {
+
+	/**
+	 * The failure of a validator which has returned <code>false</code>.
+	 */
+	private static final Object REJECTED = new Object();
+
+	private final List<ArgumentsValidator> validators = new ArrayList<ArgumentsValidator>();
+
+	private Executor executor;
+
+	void add(ArgumentsValidator validator) {
+		validators.add(validator);
+	}
+
+	void executor(Executor executor) {
+		this.executor = executor;
+	}
+
+	boolean isEmpty() {
+		return validators.isEmpty();
+	}
+
+	/**
+	 * An unchecked exception from a validator is thrown as it is, after every validator has finished.
+	 * A validator which returns <code>false</code> costs no exception.
+	 *
+	 * @return a failure with the exception of the only failed validator, or with an exception which lists every failure
+	 */
+	ParseResult validate(Arguments arguments) {
+		int size = validators.size();
+		Object[] failures = new Object[size];
+		if (executor == null || size == 1) {
+			for (int i = 0; i < size; i++) {
+				failures[i] = run(validators.get(i), arguments);
+			}
+		} else {
+			CountDownLatch latch = new CountDownLatch(size - 1);
+			for (int i = 0; i < size - 1; i++) {
+				ArgumentsValidator validator = validators.get(i);
+				int index = i;
+				try {
+					executor.execute(() -> {
+						try {
+							failures[index] = run(validator, arguments);
+						} finally {
+							latch.countDown();
+						}
+					});
+				} catch (RuntimeException e) {
+					failures[index] = e;
+					latch.countDown();
+				}
+			}
+			failures[size - 1] = run(validators.get(size - 1), arguments);
+
+			try {
+				latch.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return ParseResult.failure(new InvalidArgumentsException(ErrorCode.VALIDATION_FAILED, "The validation has been interrupted.", e));
+			}
+		}
+
+		List<Object> rejections = new ArrayList<Object>();
+		for (Object failure : failures) {
+			if (failure instanceof RuntimeException) {
+				throw (RuntimeException) failure;
+			} else if (failure instanceof Error) {
+				throw (Error) failure;
+			} else if (failure != null) {
+				rejections.add(failure);
+			}
+		}
+
+		if (rejections.isEmpty()) {
+			return ParseResult.success(arguments);
+		} else if (rejections.size() == 1) {
+			Object rejection = rejections.get(0);
+			return rejection == REJECTED ? ParseResult.failure(new ParseError(-1, null, ErrorCode.VALIDATION_FAILED, null)) : ParseResult.failure((InvalidArgumentsException) rejection);
+		}
+
+		List<InvalidArgumentsException> exceptions = new ArrayList<InvalidArgumentsException>();
+		for (Object rejection : rejections) {
+			exceptions.add(rejection == REJECTED ? new InvalidArgumentsException(ErrorCode.VALIDATION_FAILED, null) : (InvalidArgumentsException) rejection);
+		}
+		StringBuilder message = new StringBuilder().append(exceptions.size()).append(" validators have rejected the arguments.");
+		for (InvalidArgumentsException exception : exceptions) {
+			message.append(System.lineSeparator()).append(" - ").append(exception.getMessage() != null ? exception.getMessage() : exception.getErrorCode());
+		}
+		InvalidArgumentsException aggregate = new InvalidArgumentsException(ErrorCode.VALIDATION_FAILED, message.toString());
+		for (InvalidArgumentsException exception : exceptions) {
+			aggregate.addSuppressed(exception);
+		}
+		return ParseResult.failure(aggregate);
+	}
+
+	/**
+	 * @return the failure of the validator, {@link #REJECTED} if it has returned <code>false</code>,
+	 *         or <code>null</code> if it has accepted the arguments.
+	 */
+	private static Object run(ArgumentsValidator validator, Arguments arguments) {
+		try {
+			return validator.isValid(arguments) ? null : REJECTED;
+		} catch (InvalidArgumentsException | RuntimeException | Error e) {
+			return e;
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+package org.silentsoft.arguments.parser;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ArgumentFileTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void tokenizerTest() throws InvalidArgumentsException {
+		Assert.assertEquals(Arrays.asList("a", "b c", "d e", "f\\g", "h\"i", "jk", "--name=a b", "$x"),
+				tokenize("a 'b c' \"d e\" 'f\\g' \"h\\\"i\" j\\\nk --name=\"a b\" \\$x"));
+		Assert.assertEquals(Arrays.asList("a", "b#c", "d"), tokenize("a # comment 'not closed\nb#c\n\t# another\r\nd"));
+		Assert.assertEquals(Arrays.asList("", "x"), tokenize("'' x"));
+		Assert.assertEquals(Arrays.asList("\\n"), tokenize("\"\\n\""));
+		Assert.assertEquals(Arrays.asList("jk", "--name=a b", "c"), tokenize("j\\\r\nk --name=\"a \\\r\nb\"\r\nc\r\n"));
+		Assert.assertEquals(Arrays.asList("a\rb", "c\\\rd", "e\r"), tokenize("a\\\rb \"c\\\rd\" e\\\r"));
+		
+		for (String invalid : new String[] {"'a", "\"a", "a\\"}) {
+			try {
+				tokenize(invalid);
+				Assert.fail(invalid);
+			} catch (InvalidArgumentsException e) {
+			}
+		}
+	}
+
+	@Test
+	public void expandTest() throws Exception {
+		File file = write("# options\n--host=localhost\n-name \"hello world\" 'it''s'\n@not-expanded\n");
+		
+		Arguments arguments = Arguments.parser(new String[] {"-a", "@@b", "@" + file.getPath(), "--port", "8080"}, ParsingOptions.EXPAND_ARGUMENT_FILES).parse();
+		Assert.assertEquals(Arrays.asList("@b"), arguments.getValues("-a"));
+		Assert.assertEquals("localhost", arguments.getValue("--host"));
+		Assert.assertEquals(Arrays.asList("hello world", "its", "@not-expanded"), arguments.getValues("-name"));
+		Assert.assertEquals(8080, arguments.getInt("--port", 0));
+		
+		Arguments unexpanded = Arguments.parser(new String[] {"-a", "@" + file.getPath()}).parse();
+		Assert.assertEquals("@" + file.getPath(), unexpanded.getValue("-a"));
+		
+		Arguments incremental = Arguments.parser().profile(ParsingProfile.of(ParsingOptions.EXPAND_ARGUMENT_FILES)).incremental().accept("@" + file.getPath()).complete();
+		Assert.assertEquals("localhost", incremental.getValue("--host"));
+	}
+
+	@Test
+	public void invalidFileTest() throws Exception {
+		try {
+			Arguments.parser(new String[] {"@" + new File(folder.getRoot(), "missing").getPath()}, ParsingOptions.EXPAND_ARGUMENT_FILES).parse();
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+			Assert.assertTrue(e.getCause() instanceof IOException);
+		}
+		
+		File file = folder.newFile();
+		Files.write(file.toPath(), new byte[] {'-', 'a', (byte) 0xff});
+		try {
+			Arguments.parser(new String[] {"@" + file.getPath()}, ParsingOptions.EXPAND_ARGUMENT_FILES).parse();
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+			Assert.assertTrue(e.getCause() instanceof IOException);
+		}
+		
+		try {
+			Arguments.parser(new String[] {"@" + write("-a 'b").getPath()}, ParsingOptions.EXPAND_ARGUMENT_FILES).parse();
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+		}
+	}
+
+	@Test
+	public void crlfFileTest() throws Exception {
+		File file = write("--host local\\\r\nhost\r\n-name \"hello \\\r\nworld\"\r\n");
+		Arguments arguments = Arguments.parser(new String[] {"@" + file.getPath()}, ParsingOptions.EXPAND_ARGUMENT_FILES).parse();
+		Assert.assertEquals("localhost", arguments.getValue("--host"));
+		Assert.assertEquals("hello world", arguments.getValue("-name"));
+		
+		Assert.assertEquals("localhost", Arguments.parser().parseCommandLine("--host local\\\r\nhost\r\n").getValue("--host"));
+	}
+
+	@Test
+	public void rejectedFileTest() throws Exception {
+		// a value of -a and a key come before the offending token, and a key comes after it
+		File file = write("2\n--host localhost\n--\n-port 8080\n");
+		IncrementalArgumentsParser parser = Arguments.parser().profile(ParsingProfile.of(ParsingOptions.EXPAND_ARGUMENT_FILES)).incremental().accept("-a");
+		try {
+			parser.accept("@" + file.getPath());
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+			Assert.assertEquals(ErrorCode.MISSING_KEY, e.getErrorCode());
+		}
+		
+		Arguments arguments = parser.accept("1").complete();
+		Assert.assertEquals(Arguments.parser(new String[] {"-a", "1"}).profile(ParsingProfile.of(ParsingOptions.EXPAND_ARGUMENT_FILES)).parse(), arguments);
+		Assert.assertEquals(Arrays.asList("1"), arguments.getValues("-a"));
+	}
+
+	@Test
+	public void largeFileTest() throws Exception {
+		File file = folder.newFile();
+		int size = 100000;
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			for (int i = 0; i < size; i++) {
+				writer.write("-key" + i + " '값 " + i + "'\n");
+			}
+		}
+		
+		Arguments arguments = Arguments.parser(new String[] {"@" + file.getPath()}, ParsingOptions.EXPAND_ARGUMENT_FILES).parse();
+		Assert.assertEquals(size, arguments.size());
+		for (int i = 0; i < size; i += 997) {
+			Assert.assertEquals("값 " + i, arguments.getValue("-key" + i));
+		}
+	}
+
+	private File write(String content) throws IOException {
+		File file = folder.newFile();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static List<String> tokenize(String chars) throws InvalidArgumentsException {
+		List<String> tokens = new ArrayList<String>();
+		CommandLineTokenizer tokenizer = new CommandLineTokenizer(token -> tokens.add(token.toString()));
+		tokenizer.feed(chars);
+		tokenizer.end();
+		return tokens;
+	}
+
+}
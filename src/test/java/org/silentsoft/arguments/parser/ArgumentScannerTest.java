@@ -0,0 +1,55 @@
+package org.silentsoft.arguments.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArgumentScannerTest {
+
+	@Test
+	public void scanTest() {
+		ArgumentScanner scanner = new ArgumentScanner();
+
+		Assert.assertFalse(scanner.scan("value"));
+		Assert.assertFalse(scanner.scan(""));
+		Assert.assertFalse(scanner.scan("a-b=c"));
+
+		Assert.assertTrue(scanner.scan("-a"));
+		Assert.assertEquals(1, scanner.dashes());
+		Assert.assertFalse(scanner.hasValue());
+		Assert.assertEquals("-a", scanner.key());
+		Assert.assertNull(scanner.value());
+
+		Assert.assertTrue(scanner.scan("---key=value"));
+		Assert.assertEquals(3, scanner.dashes());
+		Assert.assertTrue(scanner.hasValue());
+		Assert.assertEquals("---key", scanner.key());
+		Assert.assertEquals("value", scanner.value());
+
+		Assert.assertTrue(scanner.scan("--"));
+		Assert.assertTrue(scanner.isMissingKey());
+	}
+
+	@Test
+	public void regexEquivalenceTest() {
+		ArgumentScanner scanner = new ArgumentScanner();
+		String[] tokens = new String[] {
+			"-", "--", "---", "-a", "--a", "---a", "-a=b", "--a=b=c", "--a=", "-=b", "--=", "-=", "--hello-world", "--a-=-b", "-a--", "--key=value value"
+		};
+		for (String token : tokens) {
+			Assert.assertTrue(token, scanner.scan(token));
+			Assert.assertEquals(token, token.matches("(-)+"), scanner.isMissingKey());
+			Assert.assertEquals(token, token.indexOf("=") != -1, scanner.hasValue());
+			if (scanner.hasValue()) {
+				String[] pair = token.split("=", 2);
+				Assert.assertEquals(token, pair[0], scanner.key());
+				Assert.assertEquals(token, pair[1], scanner.value());
+			} else {
+				Assert.assertEquals(token, token, scanner.key());
+			}
+			if (!scanner.isMissingKey()) {
+				Assert.assertEquals(token, scanner.key().replaceFirst("(-)+", ""), ArgumentScanner.stripDashes(scanner.key()));
+			}
+		}
+	}
+
+}
@@ -3,7 +3,9 @@ package org.silentsoft.arguments.parser;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 
 public class ArgumentTest {
 
@@ -57,4 +59,64 @@ public class ArgumentTest {
         Assert.assertTrue(Argument.of("a", new String[] {"b", "c"}).equals(Argument.of("a", new String[] {"b", "c"})));
     }
 
+    @Test
+    public void orderingTest() {
+        Argument[] arguments = new Argument[] {
+            Argument.of("a"), Argument.of("A"), Argument.of("ab"), Argument.of("a", "b"), Argument.of("a", "b", "c"),
+            Argument.of("a", "b c"), Argument.of("a", ""), Argument.of("a", "", ""), Argument.of("a=b"), Argument.of("-a", "z"),
+            Argument.of("--a"), Argument.of("a", "b", ""), Argument.of("a", "bc"), Argument.of("a b")
+        };
+        for (Argument x : arguments) {
+            for (Argument y : arguments) {
+                String message = x + " <> " + y;
+                Assert.assertEquals(message, Integer.signum(x.toString().compareTo(y.toString())), Integer.signum(x.compareTo(y)));
+                Assert.assertEquals(message, x.toString().equals(y.toString()), x.equals(y));
+                if (x.equals(y)) {
+                    Assert.assertEquals(message, x.hashCode(), y.hashCode());
+                }
+            }
+            Assert.assertEquals(x.toString(), x.toString().hashCode(), x.hashCode());
+            Assert.assertSame(x.toString(), x.toString());
+        }
+    }
+
+    @Test
+    public void slicedArgumentTest() throws InvalidArgumentsException {
+        String[] args = {"-a", "1", "2", "-b=x", "y", "-a", "3", "-a=4", "-a", "5", "6"};
+        Arguments arguments = Arguments.parser(args).parse();
+        args[1] = "changed";
+
+        Argument a = arguments.get("-a");
+        Assert.assertTrue(a instanceof SlicedArgument);
+        Assert.assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6"), a.getValues());
+        Assert.assertEquals("1 2 3 4 5 6", a.getValue());
+        Assert.assertEquals(Arrays.asList("x", "y"), arguments.getValues("-b"));
+        Assert.assertEquals(Argument.of("-a", "1", "2", "3", "4", "5", "6"), a);
+        Assert.assertEquals(Argument.of("-a", "1", "2", "3", "4", "5", "6").hashCode(), a.hashCode());
+
+        IncrementalArgumentsParser parser = Arguments.parser().incremental();
+        for (String arg : new String[] {"-a", "1", "2", "-b=x", "y", "-a", "3", "-a=4", "-a", "5", "6"}) {
+            parser.accept(arg);
+        }
+        Assert.assertEquals(parser.complete(), arguments);
+
+        try {
+            a.getValues().add("7");
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+        }
+
+        String[] repeated = new String[20000];
+        for (int i = 0; i < repeated.length; i += 2) {
+            repeated[i] = i % 4 == 0 ? "-k" : "-k=" + i;
+            repeated[i + 1] = String.valueOf(i + 1);
+        }
+        List<String> values = Arguments.parser(repeated).parse().getValues("-k");
+        Assert.assertEquals(15000, values.size());
+        Assert.assertEquals("1", values.get(0));
+        Assert.assertEquals("2", values.get(1));
+        Assert.assertEquals("3", values.get(2));
+        Assert.assertEquals("19999", values.get(14999));
+    }
+
 }
@@ -0,0 +1,125 @@
+package org.silentsoft.arguments.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ArgumentsCacheTest {
+
+	@Test
+	public void hitTest() throws InvalidArgumentsException {
+		ArgumentsCache cache = new ArgumentsCache(2);
+		String[] args = new String[] {"-a", "1", "--b=2"};
+		
+		Arguments arguments = Arguments.parser(args).cache(cache).parse();
+		Assert.assertSame(arguments, Arguments.parser(new String[] {"-a", "1", "--b=2"}).cache(cache).parse());
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+		
+		args[1] = "changed";
+		Assert.assertEquals("1", Arguments.parser(new String[] {"-a", "1", "--b=2"}).cache(cache).parse().getValue("-a"));
+		Assert.assertEquals(2, cache.getHitCount());
+		
+		Arguments insensitive = Arguments.parser(new String[] {"-a", "1", "--b=2"}, ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH).cache(cache).parse();
+		Assert.assertNotSame(arguments, insensitive);
+		Assert.assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void subcommandTest() throws InvalidArgumentsException {
+		ArgumentsCache cache = new ArgumentsCache(4);
+		Arguments first = remote(cache).parse();
+		Arguments second = remote(cache).parse();
+		Assert.assertSame(first, second);
+		Assert.assertEquals(Arrays.asList("remote", "add"), second.getSubcommands());
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+		
+		// the same tokens without the subcommands are another command line
+		Arguments unselected = Arguments.parser(new String[] {"--name", "origin"}).cache(cache).parse();
+		Assert.assertNotSame(second, unselected);
+		Assert.assertEquals(2, cache.getMissCount());
+		
+		ArgumentsCache own = new ArgumentsCache(4);
+		Arguments.parser(new String[] {"remote", "add", "--name", "origin"}).cache(cache)
+				.subcommand("remote", remote -> remote.subcommand("add", add -> add.cache(own)))
+				.parse();
+		Assert.assertEquals(1, own.getMissCount());
+		Assert.assertEquals(2, cache.getMissCount());
+	}
+
+	private static ArgumentsParser remote(ArgumentsCache cache) {
+		return Arguments.parser(new String[] {"remote", "add", "--name", "origin"}).cache(cache)
+				.subcommand("remote", remote -> remote.subcommand("add", add -> { }));
+	}
+
+	@Test
+	public void sourcesTest() throws InvalidArgumentsException {
+		ArgumentsCache cache = new ArgumentsCache(4);
+		Arguments first = sources(cache).parse();
+		Assert.assertSame(first, sources(cache).parse());
+		Assert.assertEquals(1, cache.getHitCount());
+		
+		Assert.assertNotSame(first, Arguments.parser(new String[] {"-a", "1"}).cache(cache).sources(ArgumentsSource.environment("OTHER_")).parse());
+		Assert.assertNotSame(first, Arguments.parser(new String[] {"-a", "1"}).cache(cache).sources(key -> null).parse());
+		Assert.assertNotSame(first, Arguments.parser(new String[] {"-a", "1"}).cache(cache).sources(key -> null).parse());
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(4, cache.getMissCount());
+	}
+
+	private static ArgumentsParser sources(ArgumentsCache cache) {
+		return Arguments.parser(new String[] {"-a", "1"}).cache(cache).sources(
+				ArgumentsSource.environment("APP_"),
+				ArgumentsSource.systemProperties("app."),
+				ArgumentsSource.properties(Paths.get("application.properties"))
+		);
+	}
+
+	@Test
+	public void evictionTest() throws InvalidArgumentsException {
+		ArgumentsCache cache = new ArgumentsCache(2);
+		Arguments a = Arguments.parser(new String[] {"-a"}).cache(cache).parse();
+		Arguments b = Arguments.parser(new String[] {"-b"}).cache(cache).parse();
+		Assert.assertSame(a, Arguments.parser(new String[] {"-a"}).cache(cache).parse());
+		
+		Arguments.parser(new String[] {"-c"}).cache(cache).parse();
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(1, cache.getEvictionCount());
+		Assert.assertSame(a, Arguments.parser(new String[] {"-a"}).cache(cache).parse());
+		Assert.assertNotSame(b, Arguments.parser(new String[] {"-b"}).cache(cache).parse());
+		
+		cache.clear();
+		Assert.assertEquals(0, cache.size());
+		
+		try {
+			new ArgumentsCache(0);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void callbackTest() throws InvalidArgumentsException {
+		ArgumentsCache cache = new ArgumentsCache(16);
+		AtomicInteger helps = new AtomicInteger(), validations = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			Arguments.parser(new String[] {"--help"}).cache(cache).help(arguments -> helps.incrementAndGet()).parse();
+			Arguments.parser(new String[] {"-a"}).cache(cache).validate(arguments -> validations.incrementAndGet() > 0).parse();
+		}
+		Assert.assertEquals(3, helps.get());
+		Assert.assertEquals(3, validations.get());
+		
+		for (int i = 0; i < 2; i++) {
+			try {
+				Arguments.parser(new String[] {"-a"}).cache(cache).validate(arguments -> false).parse();
+				Assert.fail();
+			} catch (InvalidArgumentsException e) {
+			}
+		}
+		Assert.assertEquals(6, cache.getHitCount());
+	}
+
+}
@@ -0,0 +1,144 @@
+package org.silentsoft.arguments.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+public class ArgumentsCodecTest {
+
+	@Test
+	public void bufferTest() throws InvalidArgumentsException {
+		Arguments arguments = Arguments.parser(new String[] {"--name=silentsoft", "-files", "a.txt", "b.txt", "-files", "c.txt", "--verbose", "--path", "😀/é"}).parse();
+		int size = ArgumentsCodec.sizeOf(arguments);
+
+		for (ByteBuffer buffer : new ByteBuffer[] {ByteBuffer.allocate(size), ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN)}) {
+			ArgumentsCodec.write(arguments, buffer);
+			Assert.assertFalse(buffer.hasRemaining());
+			buffer.flip();
+
+			Arguments decoded = ArgumentsCodec.read(buffer);
+			Assert.assertFalse(buffer.hasRemaining());
+			Assert.assertEquals(arguments, decoded);
+			Assert.assertEquals(arguments.hashCode(), decoded.hashCode());
+			Assert.assertEquals(Arrays.asList("a.txt", "b.txt", "c.txt"), decoded.get("-files").getValues());
+			Assert.assertEquals("silentsoft", decoded.getValue("--name"));
+			Assert.assertTrue(decoded.containsKey("--verbose"));
+			Assert.assertEquals(0, decoded.get("--verbose").getValues().size());
+			Assert.assertEquals("😀/é", decoded.getValue("--path"));
+		}
+	}
+
+	@Test
+	public void streamTest() throws IOException, InvalidArgumentsException {
+		Arguments declared = Arguments.parser(new String[] {"--NAME", "origin"})
+				.profile(ParsingProfile.of(ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_SENSITIVE).declare("--NAME"))
+				.parse();
+		Arguments subcommands = Arguments.parser(new String[] {"remote", "add", "--name", "origin"})
+				.subcommand("remote", remote -> remote.subcommand("add", add -> { }))
+				.parse();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			ArgumentsCodec.write(declared, out);
+			ArgumentsCodec.write(subcommands, out);
+		}
+		Assert.assertEquals(ArgumentsCodec.sizeOf(declared) + ArgumentsCodec.sizeOf(subcommands), bytes.size());
+
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			Arguments decoded = ArgumentsCodec.read(in);
+			Assert.assertEquals(declared, decoded);
+			Assert.assertEquals("origin", decoded.getValue("NAME"));
+			Assert.assertNull(decoded.getValue("name"));
+
+			decoded = ArgumentsCodec.read(in);
+			Assert.assertEquals(subcommands, decoded);
+			Assert.assertEquals(Arrays.asList("remote", "add"), decoded.getSubcommands());
+			Assert.assertEquals("origin", decoded.getValue("--NAME"));
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+		Assert.assertEquals(declared, ArgumentsCodec.read(buffer));
+		Assert.assertEquals(subcommands, ArgumentsCodec.read(buffer));
+		Assert.assertFalse(buffer.hasRemaining());
+	}
+
+	@Test
+	public void malformedTest() throws InvalidArgumentsException {
+		Arguments arguments = Arguments.parser(new String[] {"-a", "1", "2", "-b"}).parse();
+		ByteBuffer buffer = ByteBuffer.allocate(ArgumentsCodec.sizeOf(arguments));
+		ArgumentsCodec.write(arguments, buffer);
+		byte[] encoded = buffer.array();
+
+		byte[] magic = encoded.clone();
+		magic[0] = 0;
+		assertMalformed(magic);
+
+		byte[] version = encoded.clone();
+		version[4] = 2;
+		assertMalformed(version);
+
+		for (int length = 0; length < encoded.length; length++) {
+			assertMalformed(Arrays.copyOf(encoded, length));
+		}
+
+		byte[] corrupted = encoded.clone();
+		corrupted[corrupted.length - 1] = 1;
+		assertMalformed(corrupted);
+	}
+
+	/**
+	 * A corrupted count must not be trusted to allocate an array, since a stream has no length to check it against.
+	 */
+	@Test
+	public void hugeCountTest() throws IOException {
+		for (int count : new int[] {Integer.MAX_VALUE - 8, Integer.MAX_VALUE}) {
+			ByteArrayOutputStream options = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(options)) {
+				out.writeInt(0x41524753);
+				out.writeByte(1);
+				out.writeInt(count);
+			}
+			assertMalformed(options.toByteArray());
+
+			ByteArrayOutputStream string = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(string)) {
+				out.writeInt(0x41524753);
+				out.writeByte(1);
+				out.writeInt(1);
+				out.writeInt(count);
+				out.write(new byte[100000]);
+			}
+			assertMalformed(string.toByteArray());
+		}
+	}
+
+	private static void assertMalformed(byte[] encoded) {
+		try {
+			ArgumentsCodec.read(ByteBuffer.wrap(encoded));
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+			Assert.assertEquals(ErrorCode.MALFORMED_ENCODING, e.getErrorCode());
+		}
+		try {
+			ArgumentsCodec.read(new DataInputStream(new ByteArrayInputStream(encoded)));
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+			Assert.assertEquals(ErrorCode.MALFORMED_ENCODING, e.getErrorCode());
+		} catch (EOFException e) {
+			// the stream has ended before the arguments
+			Assert.assertTrue(encoded.length < 4);
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+package org.silentsoft.arguments.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class ArgumentsMetricsTest {
+
+	@Test
+	public void metricsTest() throws InvalidArgumentsException {
+		ArgumentsMetrics metrics = new ArgumentsMetrics();
+		
+		Arguments arguments = Arguments.parser(new String[] {"-a", "1", "2", "--b=3"}).listen(metrics).validate(a -> true).parse();
+		arguments.getValue("-a");
+		arguments.getValue("-a");
+		arguments.containsKey("--c");
+		
+		Arguments.parser(new String[] {"--help"}).listen(metrics).help(a -> { }).parse();
+		Arguments.parser().listen(metrics).incremental().accept("-x").accept("y").complete();
+		
+		Assert.assertEquals(3, metrics.getParseCount());
+		Assert.assertEquals(7, metrics.getTokenCount());
+		Assert.assertEquals(4, metrics.getArgumentCount());
+		Assert.assertEquals(1, metrics.getHelpCount());
+		Assert.assertEquals(1, metrics.getValidationCount());
+		Assert.assertTrue(metrics.getParseNanos() > 0);
+		Assert.assertEquals(2L, (long) metrics.getLookupCounts().get("-a"));
+		Assert.assertEquals(1L, (long) metrics.getLookupCounts().get("--c"));
+		Assert.assertEquals(Collections.singletonMap("--c", 1L), metrics.getMissCounts());
+		Assert.assertTrue(metrics.getFailureCounts().isEmpty());
+	}
+
+	@Test
+	public void failureTest() {
+		ArgumentsMetrics metrics = new ArgumentsMetrics();
+		ArgumentsParser[] parsers = new ArgumentsParser[] {
+			Arguments.parser(new String[] {"value"}),
+			Arguments.parser(new String[] {"--"}),
+			Arguments.parser(new String[] {"-a"}).validate(a -> false),
+			Arguments.parser(new String[] {"-a"}).validate(a -> { throw new InvalidArgumentsException("custom"); }),
+			Arguments.parser(new String[] {"-a"}).validate(a -> a.getInt("-a", 0) > 0),
+			Arguments.parser(new String[] {"-a"}, ParsingOptions.CASE_SENSITIVE, ParsingOptions.CASE_INSENSITIVE),
+			Arguments.parser(new String[] {"push"}).subcommand("pull", parser -> { })
+		};
+		for (ArgumentsParser parser : parsers) {
+			try {
+				parser.listen(metrics).parse();
+				Assert.fail();
+			} catch (InvalidArgumentsException e) {
+			}
+		}
+		
+		Map<ErrorCode, Long> expected = new EnumMap<ErrorCode, Long>(ErrorCode.class);
+		expected.put(ErrorCode.VALUE_WITHOUT_KEY, 1L);
+		expected.put(ErrorCode.MISSING_KEY, 1L);
+		expected.put(ErrorCode.VALIDATION_FAILED, 2L);
+		expected.put(ErrorCode.INVALID_VALUE, 1L);
+		expected.put(ErrorCode.CONFLICTING_OPTIONS, 1L);
+		expected.put(ErrorCode.UNKNOWN_SUBCOMMAND, 1L);
+		Assert.assertEquals(expected, metrics.getFailureCounts());
+		Assert.assertEquals(3, metrics.getValidationCount());
+		Assert.assertEquals(3, metrics.getParseCount());
+	}
+
+	@Test
+	public void noopTest() throws InvalidArgumentsException {
+		Arguments arguments = Arguments.parser(new String[] {"-a"}).listen(null).parse();
+		Assert.assertTrue(arguments.containsKey("-a"));
+	}
+
+}
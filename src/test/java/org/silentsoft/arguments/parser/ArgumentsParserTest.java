@@ -3,7 +3,21 @@ package org.silentsoft.arguments.parser;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class ArgumentsParserTest {
 
@@ -54,4 +68,233 @@ public class ArgumentsParserTest {
 		}));
 	}
 
+	@Test
+	public void commandLineTest() throws InvalidArgumentsException {
+		String commandLine = "  -key1=value1 value2\t--Key2 'value 3' \"value\\\"4\" -key3=a\\ b#c --empty='' # comment\n-last";
+		Arguments expected = Arguments.parser(new String[] {"-key1=value1", "value2", "--Key2", "value 3", "value\"4", "-key3=a b#c", "--empty=", "-last"}).parse();
+		
+		Assert.assertEquals(expected, Arguments.parser().parseCommandLine(commandLine));
+		Assert.assertEquals(expected, Arguments.parser().parseCommandLine(CharBuffer.wrap(commandLine.toCharArray())));
+		Assert.assertEquals(expected, Arguments.parser().parseCommandLine(new StringBuilder(commandLine)));
+		Assert.assertEquals(Arrays.asList("value 3", "value\"4"), Arguments.parser().parseCommandLine(commandLine).getValues("--key2"));
+		
+		Assert.assertTrue(Arguments.parser().parseCommandLine("").isEmpty());
+		Assert.assertTrue(Arguments.parser().parseCommandLine("# -a").isEmpty());
+		
+		for (String invalid : new String[] {"value", "-a 'b", "-a \"b", "-a b\\", "-a --"}) {
+			try {
+				Arguments.parser().parseCommandLine(invalid);
+				Assert.fail(invalid);
+			} catch (InvalidArgumentsException e) {
+			}
+		}
+	}
+
+	@Test
+	public void subcommandTest() throws InvalidArgumentsException {
+		AtomicInteger configured = new AtomicInteger();
+		AtomicBoolean helped = new AtomicBoolean();
+		ArgumentsConfigurer remove = parser -> {
+			configured.incrementAndGet();
+			parser.profile(ParsingProfile.of(ParsingOptions.REJECT_UNDECLARED_KEYS).declare("--name"));
+		};
+		
+		String[][] commandLines = new String[][] {
+			{"commit", "-m", "message", "--amend"},
+			{"remote", "add", "--name", "origin"},
+			{"remote", "remove", "--name", "origin"},
+			{"--version"}
+		};
+		List<List<String>> paths = new ArrayList<List<String>>();
+		for (String[] commandLine : commandLines) {
+			Arguments arguments = Arguments.parser(commandLine)
+					.subcommand("commit", parser -> parser.validate(a -> a.containsKey("-m")))
+					.subcommand("remote", parser -> parser
+							.subcommand("add", p -> configured.incrementAndGet())
+							.subcommand("remove", remove))
+					.subcommand("unused", parser -> Assert.fail())
+					.parse();
+			paths.add(arguments.getSubcommands());
+			Assert.assertEquals(Arguments.parser(Arrays.copyOfRange(commandLine, paths.get(paths.size() - 1).size(), commandLine.length)).parse().size(), arguments.size());
+		}
+		Assert.assertEquals(Arrays.asList(Arrays.asList("commit"), Arrays.asList("remote", "add"), Arrays.asList("remote", "remove"), Collections.emptyList()), paths);
+		Assert.assertEquals(2, configured.get());
+		
+		Arguments.parser(new String[] {"commit", "--help"}).subcommand("commit", parser -> parser.help(a -> helped.set(true))).parse();
+		Assert.assertTrue(helped.get());
+		
+		Assert.assertNotEquals(Arguments.parser(new String[] {"commit", "-a"}).subcommand("commit", parser -> {}).parse(), Arguments.parser(new String[] {"-a"}).parse());
+		
+		String[][] invalids = new String[][] {
+			{"push"},
+			{"commit"},
+			{"remote", "remove", "--names"}
+		};
+		for (String[] invalid : invalids) {
+			try {
+				Arguments.parser(invalid)
+						.subcommand("commit", parser -> parser.validate(a -> a.containsKey("-m")))
+						.subcommand("remote", parser -> parser.subcommand("remove", remove))
+						.parse();
+				Assert.fail(Arrays.toString(invalid));
+			} catch (InvalidArgumentsException e) {
+			}
+		}
+		
+		ArgumentsParser parser = Arguments.parser(new String[] {"remote", "remove"}).subcommand("remote", p -> p.subcommand("remove", remove));
+		configured.set(0);
+		parser.parse();
+		parser.parse();
+		Assert.assertEquals(1, configured.get());
+	}
+
+	@Test
+	public void validatorsTest() throws InvalidArgumentsException {
+		AtomicInteger invoked = new AtomicInteger();
+		Arguments.parser(new String[] {"-a"}).validate(a -> invoked.incrementAndGet() > 0).validate(null).validate(a -> invoked.incrementAndGet() > 0).parse();
+		Assert.assertEquals(2, invoked.get());
+		
+		try {
+			Arguments.parser(new String[] {"-a"})
+					.validate(a -> { throw new InvalidArgumentsException("first"); })
+					.validate(a -> true)
+					.validate(a -> { throw new InvalidArgumentsException("third"); })
+					.validate(a -> false)
+					.parse();
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+			Assert.assertEquals(ErrorCode.VALIDATION_FAILED, e.getErrorCode());
+			Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("3 validators have rejected the arguments."));
+			Assert.assertTrue(e.getMessage().contains("first") && e.getMessage().contains("third"));
+			Assert.assertEquals(3, e.getSuppressed().length);
+		}
+		
+		try {
+			Arguments.parser(new String[] {"-a"}).validate(a -> true).validate(a -> { throw new InvalidArgumentsException("only"); }).parse();
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+			Assert.assertEquals("only", e.getMessage());
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void concurrentValidatorsTest() throws Exception {
+		int validators = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(validators);
+		try {
+			CountDownLatch running = new CountDownLatch(validators);
+			ArgumentsParser parser = Arguments.parser(new String[] {"-a"}).validateConcurrently(executor);
+			for (int i = 0; i < validators; i++) {
+				parser.validate(a -> {
+					running.countDown();
+					try {
+						return running.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						return false;
+					}
+				});
+			}
+			parser.parse();
+			
+			try {
+				Arguments.parser(new String[] {"-a"}).validateConcurrently(executor)
+						.validate(a -> { throw new IllegalStateException(); })
+						.validate(a -> false)
+						.parse();
+				Assert.fail();
+			} catch (IllegalStateException e) {
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void parseAllTest() throws InvalidArgumentsException {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Stream<String[]> commandLines = IntStream.range(0, 1000).mapToObj(i -> i % 3 == 0 ? new String[] {"-a", "-n", String.valueOf(i)} : new String[] {"-n", String.valueOf(i)});
+			List<ParseResult> results = Arguments.parser().validate(arguments -> {
+				if (arguments.containsKey("-a")) {
+					throw new InvalidArgumentsException(arguments.getValue("-n"));
+				}
+				return true;
+			}).parseAll(commandLines, pool);
+			
+			Assert.assertEquals(1000, results.size());
+			for (int i = 0; i < 1000; i++) {
+				ParseResult result = results.get(i);
+				if (i % 3 == 0) {
+					Assert.assertFalse(result.isSuccess());
+					Assert.assertNull(result.getArguments());
+					Assert.assertEquals(String.valueOf(i), result.getException().getMessage());
+				} else {
+					Assert.assertTrue(result.isSuccess());
+					Assert.assertEquals(i, result.orElseThrow().getInt("-n", -1));
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+		
+		Assert.assertTrue(Arguments.parser().parseAll(Stream.of(new String[] {"-a"}, null)).get(1).getArguments().isEmpty());
+		
+		try {
+			Arguments.parser(null, ParsingOptions.CASE_SENSITIVE, ParsingOptions.CASE_INSENSITIVE).parseAll(Stream.empty());
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+		}
+	}
+
+	@Test
+	public void tryParseTest() throws InvalidArgumentsException {
+		ParseResult result = Arguments.parser(new String[] {"-a", "b"}).tryParse();
+		Assert.assertTrue(result.isSuccess());
+		Assert.assertTrue(result.getErrors().isEmpty());
+		Assert.assertNull(result.getException());
+		Assert.assertEquals("b", result.orElseThrow().getValue("-a"));
+		
+		result = Arguments.parser(new String[] {"x", "y", "-a", "--", "z", "-b"}).tryParse();
+		Assert.assertFalse(result.isSuccess());
+		Assert.assertNull(result.getArguments());
+		Assert.assertEquals(2, result.getErrors().size());
+		Assert.assertEquals(0, result.getErrors().get(0).getIndex());
+		Assert.assertEquals("x", result.getErrors().get(0).getText());
+		Assert.assertEquals(ErrorCode.VALUE_WITHOUT_KEY, result.getErrors().get(0).getErrorCode());
+		Assert.assertEquals(3, result.getErrors().get(1).getIndex());
+		Assert.assertEquals("--", result.getErrors().get(1).getText());
+		Assert.assertEquals(ErrorCode.MISSING_KEY, result.getErrors().get(1).getErrorCode());
+		try {
+			result.orElseThrow();
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+			Assert.assertEquals(ErrorCode.VALUE_WITHOUT_KEY, e.getErrorCode());
+			Assert.assertEquals(1, e.getSuppressed().length);
+		}
+		
+		ParsingProfile profile = ParsingProfile.of(ParsingOptions.ALLOW_ABBREVIATION, ParsingOptions.REJECT_UNDECLARED_KEYS).declare("--verbose", "--version");
+		result = Arguments.parser(new String[] {"--ver", "1", "--verb", "--port", "80", "--host"}).profile(profile).tryParse();
+		Assert.assertEquals(3, result.getErrors().size());
+		Assert.assertEquals(ErrorCode.AMBIGUOUS_KEY, result.getErrors().get(0).getErrorCode());
+		Assert.assertEquals(0, result.getErrors().get(0).getIndex());
+		Assert.assertEquals(ErrorCode.UNDECLARED_KEY, result.getErrors().get(1).getErrorCode());
+		Assert.assertEquals(3, result.getErrors().get(1).getIndex());
+		Assert.assertEquals("--port", result.getErrors().get(1).getText());
+		Assert.assertEquals(5, result.getErrors().get(2).getIndex());
+		
+		result = Arguments.parser(new String[] {"remote", "add", "value"}).subcommand("remote", parser -> parser.subcommand("add", add -> { })).tryParse();
+		Assert.assertEquals(2, result.getErrors().get(0).getIndex());
+		Assert.assertEquals(ErrorCode.VALUE_WITHOUT_KEY, result.getErrors().get(0).getErrorCode());
+		
+		result = Arguments.parser(new String[] {"-a"}).validate(arguments -> false).tryParse();
+		Assert.assertEquals(-1, result.getErrors().get(0).getIndex());
+		Assert.assertNull(result.getErrors().get(0).getText());
+		Assert.assertEquals(ErrorCode.VALIDATION_FAILED, result.getErrors().get(0).getErrorCode());
+		
+		InvalidArgumentsException exception = new InvalidArgumentsException("invalid");
+		result = Arguments.parser(new String[] {"-a"}).validate(arguments -> { throw exception; }).tryParse();
+		Assert.assertSame(exception, result.getException());
+		Assert.assertEquals("invalid", result.getErrors().get(0).getMessage());
+	}
+
 }
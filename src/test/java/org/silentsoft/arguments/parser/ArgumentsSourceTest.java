@@ -0,0 +1,142 @@
+package org.silentsoft.arguments.parser;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ArgumentsSourceTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void precedenceTest() throws InvalidArgumentsException {
+		List<String> lookups = new ArrayList<String>();
+		ArgumentsSource upper = source(lookups, "upper", "-a", "upper-a", "-b", "upper-b");
+		ArgumentsSource lower = source(lookups, "lower", "-b", "lower-b", "-c", "lower-c");
+		
+		Arguments arguments = Arguments.parser(new String[] {"-a", "cli-a"}).sources(upper, lower).parse();
+		Assert.assertEquals("cli-a", arguments.getValue("-a"));
+		Assert.assertTrue(lookups.isEmpty());
+		
+		Assert.assertEquals("upper-b", arguments.getValue("-b"));
+		Assert.assertEquals("lower-c", arguments.getValue("-c"));
+		Assert.assertNull(arguments.getValue("-d"));
+		Assert.assertEquals(Arrays.asList("upper:-b", "upper:-c", "lower:-c", "upper:-d", "lower:-d"), lookups);
+		
+		lookups.clear();
+		Assert.assertEquals("upper-b", arguments.getValue("-b"));
+		Assert.assertTrue(lookups.isEmpty());
+		Assert.assertFalse(arguments.containsKey("-d"));
+		Assert.assertEquals(Arrays.asList("upper:-d", "lower:-d"), lookups);
+		
+		Assert.assertEquals(1, arguments.size());
+		
+		Arguments commandLineLast = Arguments.parser(new String[] {"-a", "cli-a", "-d", "cli-d"}).sources(upper, lower, ArgumentsSource.commandLine()).parse();
+		Assert.assertEquals("upper-a", commandLineLast.getValue("-a"));
+		Assert.assertEquals("cli-d", commandLineLast.getValue("-d"));
+	}
+
+	@Test
+	public void normalizedKeyTest() throws InvalidArgumentsException {
+		List<String> lookups = new ArrayList<String>();
+		ArgumentsSource source = source(lookups, "source", "-x", "1");
+
+		Arguments arguments = Arguments.parser(new String[] {}, ParsingOptions.REMOVE_DASH_PREFIX).sources(source).parse();
+		Assert.assertEquals("1", arguments.getValue("-x"));
+		Assert.assertEquals("1", arguments.getValue("--x"));
+		Assert.assertEquals("1", arguments.getValue("X"));
+		Assert.assertEquals("x", arguments.get("--x").getKey());
+		Assert.assertEquals(Arrays.asList("source:-x"), lookups);
+
+		Arguments sensitive = Arguments.parser(new String[] {}).sources(source).parse();
+		Assert.assertEquals("1", sensitive.getValue("-x"));
+		Assert.assertNull(sensitive.getValue("-X"));
+	}
+
+	@Test
+	public void typedValueTest() throws InvalidArgumentsException {
+		Arguments arguments = Arguments.parser(new String[] {}).sources(source(new ArrayList<String>(), "source", "--port", "8080", "--VERBOSE", "true")).parse();
+		Assert.assertEquals(8080, arguments.getInt("--port", 0));
+		Assert.assertTrue(arguments.getBoolean("--VERBOSE", false));
+		Assert.assertEquals("--verbose", arguments.get("--VERBOSE").getKey());
+		Assert.assertFalse(arguments.requiresHelp());
+	}
+
+	@Test
+	public void environmentTest() {
+		Assert.assertEquals("APP_DB_URL", ArgumentsSources.environmentName("APP_", "--db-url"));
+		Assert.assertEquals("A_B_C1", ArgumentsSources.environmentName("", "-a.b_c1"));
+		Assert.assertEquals("HTTP_PROXY", ArgumentsSources.environmentName("", "http_proxy"));
+	}
+
+	@Test
+	public void environmentSourceTest() throws InvalidArgumentsException {
+		Map<String, String> variables = new HashMap<String, String>();
+		variables.put("APP_DB_URL", "jdbc:h2:mem:");
+		variables.put("http_proxy", "ignored");
+
+		ArgumentsSource source = new ArgumentsSources.EnvironmentSource("APP_", variables::get);
+		Assert.assertEquals("jdbc:h2:mem:", source.getValue("--db-url"));
+		Assert.assertNull(source.getValue("--missing"));
+		Assert.assertNull(new ArgumentsSources.EnvironmentSource("", variables::get).getValue("http_proxy"));
+
+		Arguments arguments = Arguments.parser(new String[] {}).sources(source).parse();
+		Assert.assertEquals("jdbc:h2:mem:", arguments.getValue("--db-url"));
+	}
+
+	@Test
+	public void commandLineSourceTest() throws InvalidArgumentsException {
+		Assert.assertNull(ArgumentsSource.commandLine().getValue("-a"));
+
+		ArgumentsSource wrapper = key -> ArgumentsSource.commandLine().getValue(key);
+		Arguments arguments = Arguments.parser(new String[] {"-a", "1"}).sources(wrapper, ArgumentsSource.commandLine()).parse();
+		Assert.assertEquals("1", arguments.getValue("-a"));
+		Assert.assertNull(arguments.getValue("-b"));
+	}
+
+	@Test
+	public void systemPropertiesTest() throws InvalidArgumentsException {
+		System.setProperty("arguments.test.timeout", "5s");
+		try {
+			Arguments arguments = Arguments.parser(new String[] {}).sources(ArgumentsSource.systemProperties("arguments.test.")).parse();
+			Assert.assertEquals(5, arguments.getDuration("--timeout", null).getSeconds());
+		} finally {
+			System.clearProperty("arguments.test.timeout");
+		}
+	}
+
+	@Test
+	public void propertiesTest() throws Exception {
+		File file = folder.newFile();
+		Files.write(file.toPath(), "db-url=jdbc:h2:mem\nname = hello world\n".getBytes(StandardCharsets.ISO_8859_1));
+		
+		Arguments arguments = Arguments.parser(new String[] {"--name", "cli"}).sources(ArgumentsSource.properties(file.toPath())).parse();
+		Assert.assertEquals("jdbc:h2:mem", arguments.getValue("--db-url"));
+		Assert.assertEquals("cli", arguments.getValue("--name"));
+		
+		Assert.assertNull(ArgumentsSource.properties(new File(folder.getRoot(), "missing").toPath()).getValue("--name"));
+	}
+
+	private static ArgumentsSource source(List<String> lookups, String name, String... entries) {
+		Map<String, String> map = new HashMap<String, String>();
+		for (int i = 0; i < entries.length; i += 2) {
+			map.put(entries[i], entries[i + 1]);
+		}
+		return key -> {
+			lookups.add(name + ":" + key);
+			return map.get(key);
+		};
+	}
+
+}
@@ -3,8 +3,10 @@ package org.silentsoft.arguments.parser;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
@@ -197,6 +199,49 @@ public class ArgumentsTest {
 		Assert.assertEquals(Arrays.asList("a", "b"), arguments.getValues("--not-existing-key", Arrays.asList("a", "b")));
 	}
 
+	@Test
+	public void typedValueTest() throws InvalidArgumentsException {
+		Arguments arguments = Arguments.parser(new String[] {"--threads=8", "--size", "9000000000", "--ratio=0.5", "--verbose", "--dry-run=FALSE", "--timeout=500ms", "--interval", "PT1M", "--ports", "80", "443", "--name=x"}).parse();
+		Assert.assertEquals(8, arguments.getInt("--threads", 1));
+		Assert.assertEquals(8, arguments.getInt("--THREADS", 1));
+		Assert.assertEquals(8L, arguments.getLong("--threads", 1L));
+		Assert.assertEquals(8, arguments.getInt("--threads", 1));
+		Assert.assertEquals(1, arguments.getInt("--not-existing-key", 1));
+		Assert.assertEquals(9000000000L, arguments.getLong("--size", 0L));
+		Assert.assertEquals(0.5, arguments.getDouble("--ratio", 0), 0);
+		Assert.assertTrue(arguments.getBoolean("--verbose", false));
+		Assert.assertFalse(arguments.getBoolean("--dry-run", true));
+		Assert.assertTrue(arguments.getBoolean("--not-existing-key", true));
+		Assert.assertEquals(Duration.ofMillis(500), arguments.getDuration("--timeout", null));
+		Assert.assertEquals(Duration.ofMinutes(1), arguments.getDuration("--interval", null));
+		Assert.assertEquals(Duration.ofDays(1), arguments.getDuration("--not-existing-key", Duration.ofDays(1)));
+		Assert.assertArrayEquals(new int[] {80, 443}, arguments.getInts("--ports", null));
+		Assert.assertArrayEquals(new long[] {80L, 443L}, arguments.getLongs("--ports", null));
+		Assert.assertArrayEquals(new int[] {8}, arguments.getInts("--threads", null));
+		Assert.assertArrayEquals(new int[] {1}, arguments.getInts("--not-existing-key", new int[] {1}));
+		
+		arguments.getInts("--ports", null)[0] = 0;
+		Assert.assertArrayEquals(new int[] {80, 443}, arguments.getInts("--ports", null));
+		
+		Predicate<Snippet> exception = (snippet) -> {
+			try {
+				snippet.run();
+			} catch (InvalidArgumentsException e) {
+				return e.getMessage().contains("--");
+			}
+			
+			return false;
+		};
+		Assert.assertTrue(exception.test(() -> arguments.getInt("--name", 0)));
+		Assert.assertTrue(exception.test(() -> arguments.getInt("--size", 0)));
+		Assert.assertTrue(exception.test(() -> arguments.getInt("--ports", 0)));
+		Assert.assertTrue(exception.test(() -> arguments.getInt("--verbose", 0)));
+		Assert.assertTrue(exception.test(() -> arguments.getBoolean("--name", false)));
+		Assert.assertTrue(exception.test(() -> arguments.getDuration("--name", null)));
+		Assert.assertTrue(exception.test(() -> arguments.getDuration("--threads", null)));
+		Assert.assertTrue(exception.test(() -> arguments.getLongs("--name", null)));
+	}
+
 	@Test
 	public void valuesTest() throws InvalidArgumentsException {
 		{
@@ -323,6 +368,74 @@ public class ArgumentsTest {
 		}
 	}
 	
+	@Test
+	public void lookupTest() throws InvalidArgumentsException {
+		{
+			String[] args = new String[2000];
+			for (int i = 0; i < 1000; i++) {
+				args[i * 2] = "--Key" + i;
+				args[i * 2 + 1] = "value" + i;
+			}
+			Arguments arguments = Arguments.parser(args).parse();
+			Assert.assertEquals(1000, arguments.size());
+			for (int i = 0; i < 1000; i++) {
+				Assert.assertEquals("value" + i, arguments.getValue("--key" + i));
+				Assert.assertEquals("value" + i, arguments.getValue("--KEY" + i));
+			}
+			Assert.assertFalse(arguments.containsKey("--key1000"));
+			Assert.assertFalse(arguments.containsKey("-key1"));
+			Assert.assertFalse(arguments.containsKey("key1"));
+			Assert.assertFalse(arguments.containsKey(null));
+			Assert.assertNull(arguments.get(null));
+		}
+		{
+			Arguments arguments = Arguments.parser(new String[] {"-Key", "--Key"}, ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_SENSITIVE).parse();
+			Assert.assertEquals(1, arguments.size());
+			Assert.assertTrue(arguments.containsKey("Key"));
+			Assert.assertFalse(arguments.containsKey("key"));
+			Assert.assertFalse(arguments.containsKey("-Key"));
+		}
+		{
+			Arguments arguments = Arguments.parser(new String[] {"-Stra\u00dfe", "--\u03a3\u03b9\u03c3"}).parse();
+			Assert.assertTrue(arguments.containsKey("-Stra\u00dfe"));
+			Assert.assertFalse(arguments.containsKey("-stra\u00dfe"));
+			Assert.assertTrue(arguments.containsKey("--\u03c3\u03b9\u03c2"));
+		}
+	}
+	
+	@Test(timeout = 10000)
+	public void largeArgumentsTest() throws InvalidArgumentsException {
+		String[] args = new String[100000];
+		for (int i = 0; i < args.length; i++) {
+			args[i] = String.format("-key%d=value%d", i % 50000, i);
+		}
+
+		Arguments arguments = Arguments.parser(args).parse();
+		Assert.assertEquals(50000, arguments.size());
+		Assert.assertEquals(Arrays.asList("value0", "value50000"), arguments.getValues("-key0"));
+		Assert.assertEquals(Arrays.asList("value49999", "value99999"), arguments.getValues("-key49999"));
+	}
+
+	@Test
+	public void repeatedKeyTest() throws InvalidArgumentsException {
+		{
+			Arguments arguments = Arguments.parser(new String[] {"-key", "a", "-key", "b", "-key=c"}).parse();
+			Assert.assertEquals(1, arguments.size());
+			Assert.assertEquals(Arrays.asList("a", "b", "c"), arguments.getValues("-key"));
+		}
+		{
+			Arguments arguments = Arguments.parser(new String[] {"-a=1", "-A=2"}, ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH).parse();
+			Assert.assertEquals(1, arguments.size());
+			Assert.assertEquals(Arrays.asList("1", "2"), arguments.getValues("-a"));
+		}
+		{
+			Arguments arguments = Arguments.parser(new String[] {"--a=1", "--A=2"}, ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH).parse();
+			Assert.assertEquals(2, arguments.size());
+			Assert.assertEquals(Arrays.asList("1"), arguments.getValues("--a"));
+			Assert.assertEquals(Arrays.asList("2"), arguments.getValues("--A"));
+		}
+	}
+	
 	@Test
 	public void iterationTest() throws InvalidArgumentsException {
 		{
@@ -356,6 +469,30 @@ public class ArgumentsTest {
 		}
 	}
 	
+	@Test
+	public void immutabilityTest() throws InvalidArgumentsException {
+		Arguments arguments = Arguments.parser(new String[] {"-key=value1", "value2", "-flag"}).parse();
+		Predicate<Runnable> unsupported = (runnable) -> {
+			try {
+				runnable.run();
+			} catch (UnsupportedOperationException e) {
+				return true;
+			}
+			
+			return false;
+		};
+		
+		Assert.assertTrue(unsupported.test(() -> arguments.getValues("-key").add("value3")));
+		Assert.assertTrue(unsupported.test(() -> arguments.getValues("-flag").add("value3")));
+		Assert.assertTrue(unsupported.test(() -> {
+			Iterator<Argument> iterator = arguments.iterator();
+			iterator.next();
+			iterator.remove();
+		}));
+		Assert.assertEquals(Arrays.asList("value1", "value2"), arguments.getValues("-key"));
+		Assert.assertEquals(2, arguments.size());
+	}
+	
 	@Test
 	public void identityTest() throws InvalidArgumentsException {
 		{
@@ -0,0 +1,74 @@
+package org.silentsoft.arguments.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class IncrementalArgumentsParserTest {
+
+	@Test
+	public void completeTest() throws InvalidArgumentsException {
+		String[] args = new String[] {"-key1=value1", "value2", "--Key2", "value3", "--key2=value4", "-flag"};
+		IncrementalArgumentsParser parser = Arguments.parser().incremental();
+		for (String arg : args) {
+			parser.accept(new StringBuilder(arg));
+		}
+		Arguments arguments = parser.complete();
+		Assert.assertEquals(Arguments.parser(args).parse(), arguments);
+		Assert.assertEquals(Arrays.asList("value3", "value4"), arguments.getValues("--key2"));
+		
+		Assert.assertEquals(0, Arguments.parser().incremental().complete().size());
+	}
+
+	@Test
+	public void profileTest() throws InvalidArgumentsException {
+		Arguments arguments = Arguments.parser().profile(ParsingProfile.of(ParsingOptions.REMOVE_DASH_PREFIX)).incremental().accept("-a").accept("--A").complete();
+		Assert.assertEquals(1, arguments.size());
+		Assert.assertTrue(arguments.containsKey("a"));
+	}
+
+	@Test
+	public void failFastTest() throws InvalidArgumentsException {
+		try {
+			Arguments.parser().incremental().accept("value");
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+		}
+		
+		IncrementalArgumentsParser parser = Arguments.parser().incremental().accept("-a");
+		try {
+			parser.accept("--");
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+		}
+		Assert.assertEquals(Arguments.parser(new String[] {"-a", "b"}).parse(), parser.accept("b").complete());
+	}
+
+	@Test(expected = InvalidArgumentsException.class)
+	public void optionsTest() throws InvalidArgumentsException {
+		Arguments.parser(null, ParsingOptions.CASE_SENSITIVE, ParsingOptions.CASE_INSENSITIVE).incremental();
+	}
+
+	@Test
+	public void helpAndValidateTest() throws InvalidArgumentsException {
+		AtomicBoolean called = new AtomicBoolean(false);
+		Arguments.parser().help(arguments -> called.set(true)).incremental().accept("--help").complete();
+		Assert.assertTrue(called.get());
+		
+		try {
+			Arguments.parser().validate(arguments -> arguments.containsKey("-a")).incremental().accept("-b").complete();
+			Assert.fail();
+		} catch (InvalidArgumentsException e) {
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void completedTest() throws InvalidArgumentsException {
+		IncrementalArgumentsParser parser = Arguments.parser().incremental();
+		parser.complete();
+		parser.accept("-a");
+	}
+
+}
@@ -0,0 +1,221 @@
+package org.silentsoft.arguments.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class KeyPoolTest {
+
+	@Test
+	public void internTest() throws InvalidArgumentsException {
+		KeyPool pool = new KeyPool(16);
+		Arguments a = Arguments.parser(commandLine()).pool(pool).parse();
+		Arguments b = Arguments.parser(commandLine()).pool(pool).parse();
+		Assert.assertEquals(a, b);
+
+		List<Argument> first = new ArrayList<Argument>();
+		a.forEach(first::add);
+		int i = 0;
+		for (Argument argument : b) {
+			Assert.assertSame(first.get(i).getKey(), argument.getKey());
+			for (int j = 0; j < argument.getValues().size(); j++) {
+				Assert.assertSame(first.get(i).getValues().get(j), argument.getValues().get(j));
+			}
+			i++;
+		}
+
+		Arguments incremental = Arguments.parser().pool(pool).incremental().accept("--HOST=localhost").complete();
+		Assert.assertSame(a.get("--host").getKey(), incremental.get("--host").getKey());
+		Assert.assertSame(a.getValue("--host"), incremental.getValue("--host"));
+	}
+
+	@Test
+	public void boundTest() {
+		KeyPool pool = new KeyPool(2, 1);
+		Assert.assertEquals("a", pool.internKey(new String("a")));
+		Assert.assertEquals("b", pool.internKey(new String("b")));
+		String c = new String("c");
+		Assert.assertSame(c, pool.internKey(c));
+		Assert.assertEquals(2, pool.getKeyCount());
+		Assert.assertNull(pool.internKey(null));
+
+		String value = pool.internValue(new String("x"));
+		Assert.assertSame(value, pool.internValue(new String("x")));
+		String y = new String("y");
+		Assert.assertSame(y, pool.internValue(y));
+		Assert.assertEquals(1, pool.getValueCount());
+		Assert.assertEquals(2, pool.getKeyCount());
+
+		try {
+			new KeyPool(0);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			new KeyPool(1, -1);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Unique values, which come first, must not take the room of the keys which come after them.
+	 */
+	@Test
+	public void budgetTest() throws InvalidArgumentsException {
+		KeyPool pool = new KeyPool(4);
+		for (int i = 0; i < 100; i++) {
+			Arguments.parser(new String[] {"--timestamp", String.valueOf(i)}).pool(pool).parse();
+		}
+		Assert.assertEquals(4, pool.getValueCount());
+
+		Arguments a = Arguments.parser(commandLine()).pool(pool).parse();
+		Arguments b = Arguments.parser(commandLine()).pool(pool).parse();
+		Assert.assertSame(a.get("--host").getKey(), b.get("--host").getKey());
+		Assert.assertSame(a.get("-port").getKey(), b.get("-port").getKey());
+	}
+
+	/**
+	 * Measures everything that thousands of parsed arguments keep alive, as a scheduler which keeps a parsed command line per queued job does.
+	 */
+	@Test
+	public void footprintTest() throws InvalidArgumentsException {
+		int jobs = 10000;
+		KeyPool pool = new KeyPool(64);
+		List<Arguments> unpooled = new ArrayList<Arguments>();
+		List<Arguments> pooled = new ArrayList<Arguments>();
+		for (int i = 0; i < jobs; i++) {
+			unpooled.add(Arguments.parser(commandLine()).parse());
+			pooled.add(Arguments.parser(commandLine()).pool(pool).parse());
+		}
+
+		Set<String> unpooledStrings = identitySet();
+		Set<String> pooledStrings = identitySet();
+		long unpooledBytes = footprint(unpooled, unpooledStrings);
+		long pooledBytes = footprint(pooled, pooledStrings);
+
+		// the pooled arguments keep no string of their own, since the tokens which are not values have been dropped
+		Assert.assertTrue(pooledStrings.size() * 100 < unpooledStrings.size());
+		// what remains is the structure of each instance, which takes about half of the unpooled bytes
+		Assert.assertTrue(pooledBytes * 100 < unpooledBytes * 60);
+		Assert.assertTrue(pool.getKeyCount() + pool.getValueCount() <= 128);
+	}
+
+	/**
+	 * @return a command line with the same keys and values as the other jobs, in strings of its own as if it has been read from a queue.
+	 */
+	private static String[] commandLine() {
+		String[] args = {"--HOST=localhost", "-port", "8080", "--Mode", "fast", "--retry=3"};
+		for (int i = 0; i < args.length; i++) {
+			args[i] = new String(args[i].toCharArray());
+		}
+		return args;
+	}
+
+	private static <T> Set<T> identitySet() {
+		return Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+	}
+
+	/**
+	 * Walks the objects which are reachable from the arguments, counting each of them once.
+	 * The objects of this library are walked field by field, and the collections element by element,
+	 * whereas the other objects of the JDK are counted as they are, assuming compact strings and compressed pointers.
+	 *
+	 * @param strings the strings which have been reached
+	 * @return the approximate bytes of the reachable objects
+	 */
+	private static long footprint(List<Arguments> list, Set<String> strings) {
+		Set<Object> seen = identitySet();
+		Deque<Object> pending = new ArrayDeque<Object>(list);
+		long bytes = 0;
+		while (!pending.isEmpty()) {
+			Object object = pending.pop();
+			if (!seen.add(object)) {
+				continue;
+			}
+
+			Class<?> type = object.getClass();
+			if (object instanceof String) {
+				strings.add((String) object);
+				bytes += 24 + align(16 + ((String) object).length());
+			} else if (type.isArray()) {
+				int length = Array.getLength(object);
+				if (type.getComponentType().isPrimitive()) {
+					bytes += align(16 + length * sizeOf(type.getComponentType()));
+				} else {
+					bytes += align(16 + length * 4);
+					for (int i = 0; i < length; i++) {
+						push(pending, Array.get(object, i));
+					}
+				}
+			} else if (type.getName().startsWith("org.silentsoft.")) {
+				long size = 12;
+				for (Class<?> c = type; c.getName().startsWith("org.silentsoft."); c = c.getSuperclass()) {
+					for (Field field : c.getDeclaredFields()) {
+						if (Modifier.isStatic(field.getModifiers())) {
+							continue;
+						}
+						size += sizeOf(field.getType());
+						if (!field.getType().isPrimitive()) {
+							field.setAccessible(true);
+							try {
+								push(pending, field.get(object));
+							} catch (IllegalAccessException e) {
+								throw new AssertionError(e);
+							}
+						}
+					}
+				}
+				bytes += align(size);
+			} else if (object instanceof Collection) {
+				bytes += align(16 + ((Collection<?>) object).size() * 4);
+				for (Object element : (Collection<?>) object) {
+					push(pending, element);
+				}
+			} else if (object instanceof Map) {
+				bytes += align(48 + ((Map<?, ?>) object).size() * 36);
+				for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+					push(pending, entry.getKey());
+					push(pending, entry.getValue());
+				}
+			} else {
+				bytes += 16;
+			}
+		}
+		return bytes;
+	}
+
+	private static void push(Deque<Object> pending, Object object) {
+		if (object != null) {
+			pending.push(object);
+		}
+	}
+
+	private static int sizeOf(Class<?> type) {
+		if (type == long.class || type == double.class) {
+			return 8;
+		} else if (type == short.class || type == char.class) {
+			return 2;
+		} else if (type == byte.class || type == boolean.class) {
+			return 1;
+		}
+		return 4;
+	}
+
+	private static long align(long size) {
+		return (size + 7) / 8 * 8;
+	}
+
+}
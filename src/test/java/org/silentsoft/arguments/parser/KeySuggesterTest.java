@@ -0,0 +1,56 @@
+package org.silentsoft.arguments.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class KeySuggesterTest {
+
+	@Test
+	public void distanceTest() {
+		Assert.assertEquals(0, KeySuggester.distance("--key", "--key"));
+		Assert.assertEquals(1, KeySuggester.distance("--key", "--ky"));
+		Assert.assertEquals(1, KeySuggester.distance("--key", "--kay"));
+		Assert.assertEquals(2, KeySuggester.distance("--key", "--eky"));
+		Assert.assertEquals(5, KeySuggester.distance("", "--key"));
+	}
+
+	@Test
+	public void bruteForceTest() {
+		Random random = new Random(0);
+		Map<String, String> keys = new LinkedHashMap<String, String>();
+		while (keys.size() < 5000) {
+			String key = randomKey(random);
+			keys.put(key, key);
+		}
+		KeySuggester suggester = new KeySuggester(keys);
+		
+		for (int i = 0; i < 200; i++) {
+			String key = randomKey(random);
+			int maximumDistance = Math.min(3, Math.max(1, ArgumentScanner.stripDashes(key).length() / 3));
+			List<String> expected = new ArrayList<String>();
+			for (int distance = 0; distance <= maximumDistance; distance++) {
+				for (String candidate : keys.keySet()) {
+					if (KeySuggester.distance(key, candidate) == distance) {
+						expected.add(candidate);
+					}
+				}
+			}
+			Assert.assertEquals(key, expected, suggester.suggest(key, Integer.MAX_VALUE));
+		}
+	}
+
+	private static String randomKey(Random random) {
+		StringBuilder builder = new StringBuilder("--");
+		for (int i = 0, length = 3 + random.nextInt(6); i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(4)));
+		}
+		return builder.toString();
+	}
+
+}
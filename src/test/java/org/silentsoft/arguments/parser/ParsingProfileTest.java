@@ -0,0 +1,119 @@
+package org.silentsoft.arguments.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ParsingProfileTest {
+
+	@Test
+	public void resolveTest() throws InvalidArgumentsException {
+		Assert.assertEquals(EnumSet.of(ParsingOptions.LEAVE_DASH_PREFIX, ParsingOptions.CASE_SENSITIVE_SINGLE_DASH, ParsingOptions.CASE_INSENSITIVE_DOUBLE_DASH), ParsingProfile.of().getOptions());
+		Assert.assertEquals(EnumSet.of(ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_INSENSITIVE), ParsingProfile.of(ParsingOptions.REMOVE_DASH_PREFIX).getOptions());
+		Assert.assertEquals(ParsingProfile.of(), ParsingProfile.of((ParsingOptions[]) null));
+		Assert.assertEquals(ParsingProfile.of(), ParsingProfile.of(ParsingOptions.LEAVE_DASH_PREFIX));
+		Assert.assertEquals(ParsingProfile.of(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH, ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH), ParsingProfile.of(ParsingOptions.CASE_INSENSITIVE_SINGLE_DASH, ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH));
+		Assert.assertTrue(ParsingProfile.of(ParsingOptions.CASE_SENSITIVE_DOUBLE_DASH).contains(ParsingOptions.CASE_SENSITIVE_SINGLE_DASH));
+	}
+
+	@Test(expected = InvalidArgumentsException.class)
+	public void conflictTest() throws InvalidArgumentsException {
+		ParsingProfile.of(ParsingOptions.LEAVE_DASH_PREFIX, ParsingOptions.REMOVE_DASH_PREFIX);
+	}
+
+	@Test
+	public void reuseTest() throws InvalidArgumentsException {
+		ParsingProfile profile = ParsingProfile.of(ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_SENSITIVE);
+		for (int i = 0; i < 3; i++) {
+			Arguments arguments = Arguments.parser(new String[] {"-a", "--A"}).profile(profile).parse();
+			Assert.assertEquals(2, arguments.size());
+			Assert.assertEquals(Arguments.parser(new String[] {"-a", "--A"}, ParsingOptions.REMOVE_DASH_PREFIX, ParsingOptions.CASE_SENSITIVE).parse(), arguments);
+		}
+		Assert.assertEquals(1, Arguments.parser(new String[] {"-a", "--A"}, ParsingOptions.CASE_SENSITIVE).profile(ParsingProfile.of(ParsingOptions.REMOVE_DASH_PREFIX)).parse().size());
+	}
+
+	@Test
+	public void abbreviationTest() throws InvalidArgumentsException {
+		ParsingProfile profile = ParsingProfile.of(ParsingOptions.ALLOW_ABBREVIATION).declare("--verbose", "--version", "--v", "-Name", "-number");
+		
+		Arguments arguments = Arguments.parser(new String[] {"--verb", "--VERS=1", "-Na", "a", "-nu=1", "--v", "-other"}).profile(profile).parse();
+		Assert.assertTrue(arguments.containsKey("--verbose"));
+		Assert.assertEquals("1", arguments.getValue("--version"));
+		Assert.assertEquals("a", arguments.getValue("-Name"));
+		Assert.assertEquals("1", arguments.getValue("-number"));
+		Assert.assertTrue(arguments.containsKey("--v"));
+		Assert.assertTrue(arguments.containsKey("-other"));
+		Assert.assertEquals(6, arguments.size());
+		
+		for (String ambiguous : new String[] {"--ver", "-n"}) {
+			try {
+				Arguments.parser(new String[] {ambiguous}).profile(profile.declare("-nothing")).parse();
+				Assert.fail(ambiguous);
+			} catch (InvalidArgumentsException e) {
+				Assert.assertTrue(e.getMessage().contains(ambiguous));
+			}
+		}
+		
+		Assert.assertTrue(Arguments.parser(new String[] {"-na"}).profile(profile).parse().containsKey("-na"));
+		Assert.assertTrue(Arguments.parser(new String[] {"--verb"}).profile(ParsingProfile.of().declare("--verbose")).parse().containsKey("--verb"));
+		Assert.assertTrue(Arguments.parser(new String[] {"-verb"}).profile(ParsingProfile.of(ParsingOptions.ALLOW_ABBREVIATION, ParsingOptions.REMOVE_DASH_PREFIX).declare("--verbose")).parse().containsKey("verbose"));
+		
+		Assert.assertEquals(profile, ParsingProfile.of(ParsingOptions.ALLOW_ABBREVIATION).declare("--verbose", "--version").declare("--v", "-Name", "-number"));
+		Assert.assertNotEquals(profile, ParsingProfile.of(ParsingOptions.ALLOW_ABBREVIATION));
+	}
+
+	@Test(expected = InvalidArgumentsException.class)
+	public void invalidDeclarationTest() throws InvalidArgumentsException {
+		ParsingProfile.of().declare("verbose");
+	}
+
+	@Test(timeout = 10000)
+	public void largeDeclarationTest() throws InvalidArgumentsException {
+		String[] keys = new String[100000];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = "--option-" + i + "-key";
+		}
+		ParsingProfile profile = ParsingProfile.of(ParsingOptions.ALLOW_ABBREVIATION).declare(keys);
+		
+		String[] args = new String[keys.length];
+		for (int i = 0; i < args.length; i++) {
+			args[i] = "--option-" + i + "-";
+		}
+		Arguments arguments = Arguments.parser(args).profile(profile).parse();
+		Assert.assertEquals(keys.length, arguments.size());
+		Assert.assertTrue(arguments.containsKey("--option-99999-key"));
+	}
+
+	@Test
+	public void undeclaredKeyTest() throws InvalidArgumentsException {
+		ParsingProfile profile = ParsingProfile.of(ParsingOptions.REJECT_UNDECLARED_KEYS).declare("--verbose", "--version", "-name", "-port", "-part");
+		
+		Assert.assertEquals(3, Arguments.parser(new String[] {"--VERBOSE", "-name", "a", "-port=1"}).profile(profile).parse().size());
+		Assert.assertEquals(1, Arguments.parser(new String[] {"--help"}).profile(profile).parse().size());
+		
+		String[][] cases = new String[][] {
+			{"--verbos", "The argument '--verbos' is not declared. Did you mean --verbose?"},
+			{"-pirt", "The argument '-pirt' is not declared. Did you mean -port or -part?"},
+			{"-Name", "The argument '-Name' is not declared. Did you mean -name?"},
+			{"-xyz", "The argument '-xyz' is not declared."}
+		};
+		for (String[] c : cases) {
+			try {
+				Arguments.parser(new String[] {"-name", c[0]}).profile(profile).parse();
+				Assert.fail(c[0]);
+			} catch (InvalidArgumentsException e) {
+				Assert.assertEquals(c[1], e.getMessage());
+			}
+		}
+		
+		AtomicBoolean helped = new AtomicBoolean();
+		Arguments.parser(new String[] {"--verbos", "--help"}).profile(profile).help(arguments -> helped.set(true)).parse();
+		Assert.assertTrue(helped.get());
+		
+		ParsingProfile abbreviating = ParsingProfile.of(ParsingOptions.REJECT_UNDECLARED_KEYS, ParsingOptions.ALLOW_ABBREVIATION).declare("--verbose");
+		Assert.assertTrue(Arguments.parser(new String[] {"--verb"}).profile(abbreviating).parse().containsKey("--verbose"));
+	}
+
+}